@@ -28,12 +28,14 @@ import ch.njol.skript.lang.SkriptParser;
 import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.TriggerSection;
+import ch.njol.skript.lang.parser.ParseProfiler;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.log.CountingLogHandler;
 import ch.njol.skript.log.LogEntry;
 import ch.njol.skript.log.RetainingLogHandler;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.sections.SecLoop;
+import ch.njol.skript.structures.StructEvent;
 import ch.njol.skript.structures.StructOptions.OptionsData;
 import ch.njol.skript.util.ExceptionUtils;
 import ch.njol.skript.util.SkriptColor;
@@ -48,27 +50,40 @@ import org.bukkit.Bukkit;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 import org.skriptlang.skript.lang.script.Script;
+import org.skriptlang.skript.lang.script.ScriptData;
 import org.skriptlang.skript.lang.structure.Structure;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 import java.io.File;
 import java.io.FileFilter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -490,19 +505,18 @@ public class ScriptLoader {
 
 		Bukkit.getPluginManager().callEvent(new PreScriptLoadEvent(configs));
 		
-		ScriptInfo scriptInfo = new ScriptInfo();
-
-		List<LoadingScriptInfo> scripts = new ArrayList<>();
+		// Filled by index, as scripts may be parsed in parallel, but should be loaded in a consistent order
+		LoadingScriptInfo[] loadingScripts = new LoadingScriptInfo[configs.size()];
 
 		List<CompletableFuture<Void>> scriptInfoFutures = new ArrayList<>();
-		for (Config config : configs) {
+		for (int i = 0; i < configs.size(); i++) {
+			Config config = configs.get(i);
 			if (config == null)
 				throw new NullPointerException();
 			
+			int index = i;
 			CompletableFuture<Void> future = makeFuture(() -> {
-				LoadingScriptInfo info = loadScript(config);
-				scripts.add(info);
-				scriptInfo.add(new ScriptInfo(1, info.structures.size()));
+				loadingScripts[index] = loadScript(config);
 				return null;
 			}, openCloseable);
 			
@@ -511,10 +525,15 @@ public class ScriptLoader {
 		
 		return CompletableFuture.allOf(scriptInfoFutures.toArray(new CompletableFuture[0]))
 			.thenApply(unused -> {
-				// TODO in the future this won't work when parallel loading is fixed
-				// It does now though so let's avoid calling getParser() a bunch.
+				// This is the thread coordinating the loading,
+				// structures loaded in parallel use the ParserInstance of the thread loading them.
 				ParserInstance parser = getParser();
 
+				List<LoadingScriptInfo> scripts = Arrays.asList(loadingScripts);
+				ScriptInfo scriptInfo = new ScriptInfo();
+				for (LoadingScriptInfo info : scripts)
+					scriptInfo.add(new ScriptInfo(1, info.structures.size()));
+
 				try {
 					openCloseable.open();
 
@@ -533,10 +552,12 @@ public class ScriptLoader {
 						LoadingScriptInfo loadingInfo = pair.getFirst();
 						Structure structure = pair.getSecond();
 
+						Node node = loadingInfo.nodeMap.get(structure);
 						parser.setActive(loadingInfo.script);
 						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
+						parser.setNode(node);
 
+						boolean profiling = ParseProfiler.enterStructure();
 						try {
 							if (!structure.preLoad()) {
 								loadingInfo.structures.remove(structure);
@@ -547,49 +568,36 @@ public class ScriptLoader {
 							Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
 							loadingInfo.structures.remove(structure);
 							return true;
+						} finally {
+							if (profiling)
+								ParseProfiler.exitStructure(node);
 						}
 						return false;
 					});
 					parser.setInactive();
 
-					// TODO in the future, Structure#load/Structure#postLoad should be split across multiple threads if parallel loading is enabled.
-					// However, this is not possible right now as reworks in multiple areas will be needed.
-					// For example, the "Commands" class still uses a static list for currentArguments that is cleared between loads.
-					// Until these reworks happen, limiting main loading to asynchronous (not parallel) is the only choice we have.
-
 					// loading
-					pairs.removeIf(pair -> {
-						LoadingScriptInfo loadingInfo = pair.getFirst();
-						Structure structure = pair.getSecond();
-
-						parser.setActive(loadingInfo.script);
-						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
-
-						try {
-							if (!structure.load()) {
-								loadingInfo.structures.remove(structure);
-								return true;
-							}
-						} catch (Exception e) {
-							//noinspection ThrowableNotThrown
-							Skript.exception(e, "An error occurred while trying to load a Structure.");
-							loadingInfo.structures.remove(structure);
-							return true;
-						}
-						return false;
-					});
-					parser.setInactive();
+					// Structures that support it are loaded in parallel if enabled, see loadInParallel.
+					// Others still share global state during loading (e.g. the "Commands" class uses a static list
+					// for currentArguments), so they are loaded one after another on this thread.
+					if (isParallel()) {
+						loadInParallel(pairs);
+					} else {
+						pairs.removeIf(pair -> !loadStructure(parser, pair.getFirst(), pair.getSecond()));
+						parser.setInactive();
+					}
 
 					// post-loading
 					pairs.removeIf(pair -> {
 						LoadingScriptInfo loadingInfo = pair.getFirst();
 						Structure structure = pair.getSecond();
 
+						Node node = loadingInfo.nodeMap.get(structure);
 						parser.setActive(loadingInfo.script);
 						parser.setCurrentStructure(structure);
-						parser.setNode(loadingInfo.nodeMap.get(structure));
+						parser.setNode(node);
 
+						boolean profiling = ParseProfiler.enterStructure();
 						try {
 							if (!structure.postLoad()) {
 								loadingInfo.structures.remove(structure);
@@ -600,6 +608,9 @@ public class ScriptLoader {
 							Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
 							loadingInfo.structures.remove(structure);
 							return true;
+						} finally {
+							if (profiling)
+								ParseProfiler.exitStructure(node);
 						}
 						return false;
 					});
@@ -617,6 +628,153 @@ public class ScriptLoader {
 			});
 	}
 
+	/**
+	 * Loads a structure using the given parser, removing it from its script if it failed to load.
+	 * @return Whether the structure was loaded successfully.
+	 */
+	private static boolean loadStructure(ParserInstance parser, LoadingScriptInfo loadingInfo, Structure structure) {
+		Node node = loadingInfo.nodeMap.get(structure);
+		parser.setActive(loadingInfo.script);
+		parser.setCurrentStructure(structure);
+		parser.setNode(node);
+
+		boolean profiling = ParseProfiler.enterStructure();
+		try {
+			if (!structure.load()) {
+				loadingInfo.structures.remove(structure);
+				return false;
+			}
+		} catch (Exception e) {
+			//noinspection ThrowableNotThrown
+			Skript.exception(e, "An error occurred while trying to load a Structure.");
+			loadingInfo.structures.remove(structure);
+			return false;
+		} finally {
+			if (profiling)
+				ParseProfiler.exitStructure(node);
+		}
+		return true;
+	}
+
+	/**
+	 * Loads the given structures, which must be sorted by priority.
+	 * Consecutive structures of the same priority that {@link Structure#canLoadInParallel() can be loaded in parallel}
+	 *  are loaded together, with the structures of each script being loaded in order by one of the async loaders.
+	 * Other structures are loaded one after another on this thread, after all structures before them have been loaded.
+	 * <br>
+	 * The log of each script is retained by the thread loading it and logged on this thread in script order,
+	 *  so that the log looks the same as when loading sequentially.
+	 * @param pairs The structures to load. Structures that failed to load are removed.
+	 */
+	private static void loadInParallel(List<NonNullPair<LoadingScriptInfo, Structure>> pairs) {
+		ParserInstance parser = getParser();
+		List<NonNullPair<LoadingScriptInfo, Structure>> loaded = new ArrayList<>(pairs.size());
+		int start = 0;
+		while (start < pairs.size()) {
+			NonNullPair<LoadingScriptInfo, Structure> first = pairs.get(start);
+			if (!first.getSecond().canLoadInParallel()) {
+				if (loadStructure(parser, first.getFirst(), first.getSecond()))
+					loaded.add(first);
+				parser.setInactive();
+				start++;
+				continue;
+			}
+
+			// Find the structures that can be loaded together with the first one
+			int end = start + 1;
+			while (end < pairs.size()
+					&& pairs.get(end).getSecond().canLoadInParallel()
+					&& pairs.get(end).getSecond().getPriority().compareTo(first.getSecond().getPriority()) == 0)
+				end++;
+
+			Map<LoadingScriptInfo, List<Structure>> scripts = new LinkedHashMap<>();
+			for (NonNullPair<LoadingScriptInfo, Structure> pair : pairs.subList(start, end))
+				scripts.computeIfAbsent(pair.getFirst(), info -> new ArrayList<>()).add(pair.getSecond());
+
+			List<ParallelLoad> loads = new ArrayList<>(scripts.size());
+			scripts.forEach((info, structures) -> loads.add(new ParallelLoad(info, structures)));
+			runInParallel(loads);
+
+			for (ParallelLoad load : loads) {
+				SkriptLogger.logAll(load.log);
+				for (Structure structure : load.loaded)
+					loaded.add(new NonNullPair<>(load.info, structure));
+			}
+			start = end;
+		}
+		pairs.clear();
+		pairs.addAll(loaded);
+	}
+
+	/**
+	 * Runs the given tasks using the idle async loaders and this thread, returning once all tasks are done.
+	 * This thread takes part in running the tasks, so that they are also run if all async loaders are busy.
+	 */
+	private static void runInParallel(List<? extends Runnable> tasks) {
+		Queue<Runnable> queue = new ConcurrentLinkedQueue<>(tasks);
+		CountDownLatch done = new CountDownLatch(tasks.size());
+		Runnable worker = () -> {
+			Runnable task;
+			while ((task = queue.poll()) != null) {
+				try {
+					task.run();
+				} catch (Throwable t) {
+					//noinspection ThrowableNotThrown
+					Skript.exception(t, "An error occurred while trying to load a Structure.");
+				} finally {
+					done.countDown();
+				}
+			}
+		};
+
+		int helpers = Math.min(asyncLoaderSize, tasks.size() - 1);
+		for (int i = 0; i < helpers; i++)
+			loadQueue.add(worker);
+		worker.run();
+
+		try {
+			done.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw Skript.exception(e);
+		}
+	}
+
+	/**
+	 * The structures of a script loaded by {@link #loadInParallel(List)},
+	 *  together with the results of loading them.
+	 */
+	private static class ParallelLoad implements Runnable {
+
+		private final LoadingScriptInfo info;
+		private final List<Structure> structures;
+
+		private final List<Structure> loaded = new ArrayList<>();
+		private Collection<LogEntry> log = Collections.emptyList();
+
+		ParallelLoad(LoadingScriptInfo info, List<Structure> structures) {
+			this.info = info;
+			this.structures = structures;
+		}
+
+		@Override
+		public void run() {
+			ParserInstance parser = getParser();
+			RetainingLogHandler logHandler = SkriptLogger.startRetainingLog();
+			try {
+				for (Structure structure : structures) {
+					if (loadStructure(parser, info, structure))
+						loaded.add(structure);
+				}
+			} finally {
+				parser.setInactive();
+				logHandler.stop();
+				log = logHandler.getLog();
+			}
+		}
+
+	}
+
 	private static class LoadingScriptInfo {
 
 		public final Script script;
@@ -647,6 +805,8 @@ public class ScriptLoader {
 		Map<Structure, Node> nodeMap = new HashMap<>();
 		List<Structure> structures = new ArrayList<>();
 		Script script = new Script(config, structures);
+		StructureSources sources = new StructureSources(structures);
+		script.addData(sources);
 		parser.setActive(script);
 
 		try {
@@ -655,30 +815,14 @@ public class ScriptLoader {
 			
 			try (CountingLogHandler ignored = new CountingLogHandler(SkriptLogger.SEVERE).start()) {
 				for (Node node : config.getMainNode()) {
-					if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
-						// unlikely to occur, but just in case
-						Skript.error("could not interpret line as a structure");
-						continue;
-					}
-
-					String line = node.getKey();
-					if (line == null)
-						continue;
-					line = replaceOptions(line); // replace options here before validation
-
-					if (!SkriptParser.validateLine(line))
-						continue;
-
-					if (Skript.logVeryHigh() && !Skript.debug())
-						Skript.info("loading trigger '" + line + "'");
-
-					Structure structure = Structure.parse(line, node, "Can't understand this structure: " + line);
-
+					Structure structure = parseStructure(node);
 					if (structure == null)
 						continue;
 
 					structures.add(structure);
 					nodeMap.put(structure, node);
+					sources.sources.put(structure, getSource(node));
+					sources.lines.put(structure, node.getLine());
 				}
 				
 				if (Skript.logHigh()) {
@@ -720,6 +864,74 @@ public class ScriptLoader {
 		return new LoadingScriptInfo(script, structures, nodeMap);
 	}
 
+	/**
+	 * Parses a top-level node of a script into a structure.
+	 * The script of the node must be active.
+	 * @return The parsed structure, or null if the node isn't a structure or failed to parse.
+	 */
+	@Nullable
+	private static Structure parseStructure(Node node) {
+		if (!(node instanceof SimpleNode) && !(node instanceof SectionNode)) {
+			// unlikely to occur, but just in case
+			Skript.error("could not interpret line as a structure");
+			return null;
+		}
+
+		String line = node.getKey();
+		if (line == null)
+			return null;
+		line = replaceOptions(line); // replace options here before validation
+
+		if (!SkriptParser.validateLine(line))
+			return null;
+
+		if (Skript.logVeryHigh() && !Skript.debug())
+			Skript.info("loading trigger '" + line + "'");
+
+		boolean profiling = ParseProfiler.enterStructure();
+		try {
+			return Structure.parse(line, node, "Can't understand this structure: " + line);
+		} finally {
+			if (profiling)
+				ParseProfiler.exitStructure(node);
+		}
+	}
+
+	/**
+	 * @return The full source of a top-level node, including all of its child nodes.
+	 */
+	private static String getSource(Node node) {
+		StringWriter writer = new StringWriter();
+		try (PrintWriter printWriter = new PrintWriter(writer)) {
+			node.save(printWriter);
+		}
+		return writer.toString();
+	}
+
+	/**
+	 * Keeps track of the sources the structures of a script were parsed from,
+	 *  used to only reload the structures that changed when the script is reloaded.
+	 */
+	private static final class StructureSources implements ScriptData {
+
+		/**
+		 * The modifiable list of structures of the script.
+		 */
+		private final List<Structure> structures;
+
+		private final Map<Structure, String> sources = new HashMap<>();
+
+		/**
+		 * The lines the structures start at, as kept structures must not have moved.
+		 */
+		private final Map<Structure, Integer> lines = new HashMap<>();
+
+		StructureSources(List<Structure> structures) {
+			this.structures = structures;
+		}
+
+	}
+
 	/*
 	 * Script Structure Loading Methods
 	 */
@@ -843,6 +1055,8 @@ public class ScriptLoader {
 				throw new IllegalArgumentException("A script must have a file to be unloaded.");
 		}
 
+		InlineCache.logStatistics();
+
 		ParserInstance parser = getParser();
 
 		// initial unload stage
@@ -907,18 +1121,299 @@ public class ScriptLoader {
 	 * @return Info on the loaded Scripts.
 	 */
 	public static CompletableFuture<ScriptInfo> reloadScripts(Set<Script> scripts, OpenCloseable openCloseable) {
-		unloadScripts(scripts);
-
-		List<Config> configs = new ArrayList<>();
+		Map<Script, Config> configs = new LinkedHashMap<>();
 		for (Script script : scripts) {
 			//noinspection ConstantConditions - getFile should never return null
 			Config config = loadStructure(script.getConfig().getFile());
-			if (config == null)
+			if (config == null) {
+				unloadScripts(scripts.stream()
+					.filter(loadedScripts::contains) // the script of a deleted file has already been unloaded
+					.collect(Collectors.toSet()));
 				return CompletableFuture.completedFuture(new ScriptInfo());
-			configs.add(config);
+			}
+			configs.put(script, config);
+		}
+
+		// Scripts where only events changed only have those events reloaded.
+		// The changed events are parsed in parallel, but loaded one script after another on the coordinating thread,
+		//  like the full load does, as loading events registers them in the shared SkriptEventHandler.
+		List<Script> scriptList = new ArrayList<>(configs.keySet());
+		ChangedStructures[] changes = new ChangedStructures[scriptList.size()];
+		List<CompletableFuture<Void>> futures = new ArrayList<>(scriptList.size());
+		for (int i = 0; i < scriptList.size(); i++) {
+			int index = i;
+			Script script = scriptList.get(i);
+			futures.add(makeFuture(() -> {
+				changes[index] = parseChangedStructures(script, configs.get(script));
+				return null;
+			}, openCloseable));
 		}
 
-		return loadScripts(configs, openCloseable);
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).thenCompose(unused -> {
+			ScriptInfo reloaded = new ScriptInfo();
+			Set<Script> fullReloads = new LinkedHashSet<>();
+			List<Config> fullReloadConfigs = new ArrayList<>();
+			List<ChangedStructures> changedScripts = new ArrayList<>();
+			for (int i = 0; i < changes.length; i++) {
+				if (changes[i] != null) {
+					changedScripts.add(changes[i]);
+				} else {
+					fullReloads.add(scriptList.get(i));
+					fullReloadConfigs.add(configs.get(scriptList.get(i)));
+				}
+			}
+
+			if (!changedScripts.isEmpty()) {
+				try {
+					openCloseable.open();
+					for (ChangedStructures changed : changedScripts)
+						reloaded.add(reloadChangedStructures(changed));
+				} catch (Exception e) {
+					// Something went wrong, we need to make sure the exception is printed
+					throw Skript.exception(e);
+				} finally {
+					getParser().setInactive();
+					openCloseable.close();
+				}
+			}
+
+			Task.callSync(() -> unloadScripts(fullReloads));
+			return loadScripts(fullReloadConfigs, openCloseable).thenApply(info -> {
+				info.add(reloaded);
+				return info;
+			});
+		});
+	}
+
+	/**
+	 * The changed structures of a script parsed by {@link #parseChangedStructures(Script, Config)},
+	 *  to be loaded by {@link #reloadChangedStructures(ChangedStructures)}.
+	 */
+	private static final class ChangedStructures {
+
+		private final Script script;
+		private final Config config;
+		private final StructureSources sources;
+
+		/**
+		 * The nodes of the new config, with their sources and the loaded structures kept for them,
+		 *  or null for nodes whose structures are new.
+		 */
+		private final List<Node> nodes;
+		private final List<String> nodeSources;
+		private final List<Structure> kept;
+
+		/**
+		 * The loaded structures whose source isn't part of the new config anymore.
+		 */
+		private final List<Structure> removed;
+
+		/**
+		 * The newly parsed structures, with the nodes they were parsed from.
+		 */
+		private final Map<Structure, Node> added;
+
+		/**
+		 * The log of parsing the new structures, logged when they are loaded so that the log is in script order.
+		 */
+		private final Collection<LogEntry> log;
+
+		ChangedStructures(Script script, Config config, StructureSources sources,
+						  List<Node> nodes, List<String> nodeSources, List<Structure> kept,
+						  List<Structure> removed, Map<Structure, Node> added, Collection<LogEntry> log) {
+			this.script = script;
+			this.config = config;
+			this.sources = sources;
+			this.nodes = nodes;
+			this.nodeSources = nodeSources;
+			this.kept = kept;
+			this.removed = removed;
+			this.added = added;
+			this.log = log;
+		}
+
+	}
+
+	/**
+	 * Parses only the structures of a script whose source changed, so that all other structures can be kept loaded.
+	 * This is only done if all changed structures are events, as other structures such as options,
+	 *  functions or commands may affect the rest of the script or other scripts,
+	 *  and if none of the kept structures moved, as their triggers refer to the lines they were parsed from.
+	 * <br>
+	 * This may be called from any loader thread, as it doesn't change the loaded script.
+	 * @param script The loaded script.
+	 * @param config The new contents of the script.
+	 * @return The changed structures of the script, or null if the script must be fully reloaded instead.
+	 */
+	@Nullable
+	private static ChangedStructures parseChangedStructures(Script script, Config config) {
+		StructureSources sources = script.getData(StructureSources.class);
+		if (sources == null)
+			return null;
+
+		// Match the loaded structures to the nodes of the new config by their source
+		Map<String, Deque<Structure>> unchanged = new HashMap<>();
+		for (Structure structure : sources.structures) {
+			String source = sources.sources.get(structure);
+			if (source == null)
+				return null;
+			unchanged.computeIfAbsent(source, key -> new ArrayDeque<>()).add(structure);
+		}
+		List<Node> nodes = new ArrayList<>();
+		List<String> nodeSources = new ArrayList<>();
+		List<Structure> kept = new ArrayList<>();
+		for (Node node : config.getMainNode()) {
+			String source = getSource(node);
+			Deque<Structure> structures = unchanged.get(source);
+			Structure structure = structures == null ? null : structures.poll();
+			if (structure != null && !Objects.equals(sources.lines.get(structure), node.getLine()))
+				return null;
+			nodes.add(node);
+			nodeSources.add(source);
+			kept.add(structure);
+		}
+
+		List<Structure> removed = new ArrayList<>();
+		for (Deque<Structure> structures : unchanged.values())
+			removed.addAll(structures);
+		for (Structure structure : removed) {
+			if (!(structure instanceof StructEvent))
+				return null;
+		}
+
+		// Parse the new structures, discarding them if the script has to be fully reloaded
+		ParserInstance parser = getParser();
+		Map<Structure, Node> added = new LinkedHashMap<>();
+		RetainingLogHandler log = SkriptLogger.startRetainingLog();
+		try {
+			parser.setActive(script);
+			for (int i = 0; i < nodes.size(); i++) {
+				if (kept.get(i) != null)
+					continue;
+				Structure structure = parseStructure(nodes.get(i));
+				if (structure == null)
+					continue;
+				if (!(structure instanceof StructEvent)) {
+					log.clear();
+					return null;
+				}
+				added.put(structure, nodes.get(i));
+			}
+		} finally {
+			parser.setInactive();
+			log.stop();
+		}
+
+		return new ChangedStructures(script, config, sources, nodes, nodeSources, kept, removed, added, log.getLog());
+	}
+
+	/**
+	 * Replaces the changed structures of a script with the ones parsed by {@link #parseChangedStructures(Script, Config)}.
+	 * Scripts must be reloaded one after another, as loading structures may change shared state.
+	 * @param changed The changed structures of the script.
+	 * @return Info on the reloaded script.
+	 */
+	private static ScriptInfo reloadChangedStructures(ChangedStructures changed) {
+		Script script = changed.script;
+		StructureSources sources = changed.sources;
+		List<Node> nodes = changed.nodes;
+		List<Structure> kept = changed.kept;
+		List<Structure> removed = changed.removed;
+		Map<Structure, Node> added = changed.added;
+		SkriptLogger.logAll(changed.log);
+
+		// Unload the removed structures, on the main thread like when unloading whole scripts
+		Task.callSync(() -> {
+			ParserInstance mainParser = getParser();
+			mainParser.setActive(script);
+			try {
+				for (Structure structure : removed)
+					structure.unload();
+				for (Structure structure : removed)
+					structure.postUnload();
+			} finally {
+				mainParser.setInactive();
+			}
+			return null;
+		});
+
+		// Load the new structures
+		ParserInstance parser = getParser();
+		List<Structure> loading = new ArrayList<>(added.keySet());
+		loading.sort(Comparator.comparing(Structure::getPriority));
+		LoadingScriptInfo loadingInfo = new LoadingScriptInfo(script, loading, added);
+		try {
+			loading.removeIf(structure -> {
+				Node node = added.get(structure);
+				parser.setActive(script);
+				parser.setCurrentStructure(structure);
+				parser.setNode(node);
+				boolean profiling = ParseProfiler.enterStructure();
+				try {
+					return !structure.preLoad();
+				} catch (Exception e) {
+					//noinspection ThrowableNotThrown
+					Skript.exception(e, "An error occurred while trying to preLoad a Structure.");
+					return true;
+				} finally {
+					if (profiling)
+						ParseProfiler.exitStructure(node);
+				}
+			});
+			for (Structure structure : new ArrayList<>(loading))
+				loadStructure(parser, loadingInfo, structure);
+			loading.removeIf(structure -> {
+				Node node = added.get(structure);
+				parser.setActive(script);
+				parser.setCurrentStructure(structure);
+				parser.setNode(node);
+				boolean profiling = ParseProfiler.enterStructure();
+				try {
+					return !structure.postLoad();
+				} catch (Exception e) {
+					//noinspection ThrowableNotThrown
+					Skript.exception(e, "An error occurred while trying to postLoad a Structure.");
+					return true;
+				} finally {
+					if (profiling)
+						ParseProfiler.exitStructure(node);
+				}
+			});
+		} finally {
+			parser.setInactive();
+		}
+
+		// Update the structures of the script, in the order of the new config
+		Set<Structure> loaded = new HashSet<>(loading);
+		sources.structures.clear();
+		sources.sources.clear();
+		sources.lines.clear();
+		for (int i = 0; i < nodes.size(); i++) {
+			Structure structure = kept.get(i);
+			if (structure == null) {
+				for (Map.Entry<Structure, Node> entry : added.entrySet()) {
+					if (entry.getValue() == nodes.get(i) && loaded.contains(entry.getKey())) {
+						structure = entry.getKey();
+						break;
+					}
+				}
+				if (structure == null)
+					continue;
+			}
+			sources.structures.add(structure);
+			sources.sources.put(structure, changed.nodeSources.get(i));
+			sources.lines.put(structure, nodes.get(i).getLine());
+		}
+
+		// The kept structures haven't moved, so the script's config can be replaced by the new one
+		Config config = changed.config;
+		if (SkriptConfig.keepConfigsLoaded.value()) {
+			SkriptConfig.configs.remove(script.getConfig());
+			SkriptConfig.configs.add(config);
+		}
+		script.setConfig(config);
+
+		return new ScriptInfo(1, sources.structures.size());
 	}
 	
 	/*
@@ -962,39 +1457,45 @@ public class ScriptLoader {
 			if (!SkriptParser.validateLine(expr))
 				continue;
 
-			if (subNode instanceof SimpleNode) {
-				long start = System.currentTimeMillis();
-				Statement stmt = Statement.parse(expr, items, "Can't understand this condition/effect: " + expr);
-				if (stmt == null)
-					continue;
-				long requiredTime = SkriptConfig.longParseTimeWarningThreshold.value().getMilliSeconds();
-				if (requiredTime > 0) {
-					long timeTaken = System.currentTimeMillis() - start;
-					if (timeTaken > requiredTime)
-						Skript.warning(
-							"The current line took a long time to parse (" + new Timespan(timeTaken) + ")."
-								+ " Avoid using long lines and use parentheses to create clearer instructions."
-						);
-				}
+			boolean profiling = ParseProfiler.enterLine();
+			try {
+				if (subNode instanceof SimpleNode) {
+					long start = System.currentTimeMillis();
+					Statement stmt = Statement.parse(expr, items, "Can't understand this condition/effect: " + expr);
+					if (stmt == null)
+						continue;
+					long requiredTime = SkriptConfig.longParseTimeWarningThreshold.value().getMilliSeconds();
+					if (requiredTime > 0) {
+						long timeTaken = System.currentTimeMillis() - start;
+						if (timeTaken > requiredTime)
+							Skript.warning(
+								"The current line took a long time to parse (" + new Timespan(timeTaken) + ")."
+									+ " Avoid using long lines and use parentheses to create clearer instructions."
+							);
+					}
 
-				if (Skript.debug() || subNode.debug())
-					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + stmt.toString(null, true)));
+					if (Skript.debug() || subNode.debug())
+						Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + stmt.toString(null, true)));
 
-				items.add(stmt);
-			} else if (subNode instanceof SectionNode) {
-				TypeHints.enterScope(); // Begin conditional type hints
+					items.add(stmt);
+				} else if (subNode instanceof SectionNode) {
+					TypeHints.enterScope(); // Begin conditional type hints
 
-				Section section = Section.parse(expr, "Can't understand this section: " + expr, (SectionNode) subNode, items);
-				if (section == null)
-					continue;
+					Section section = Section.parse(expr, "Can't understand this section: " + expr, (SectionNode) subNode, items);
+					if (section == null)
+						continue;
 
-				if (Skript.debug() || subNode.debug())
-					Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + section.toString(null, true)));
+					if (Skript.debug() || subNode.debug())
+						Skript.debug(SkriptColor.replaceColorChar(parser.getIndentation() + section.toString(null, true)));
 
-				items.add(section);
+					items.add(section);
 
-				// Destroy these conditional type hints
-				TypeHints.exitScope();
+					// Destroy these conditional type hints
+					TypeHints.exitScope();
+				}
+			} finally {
+				if (profiling)
+					ParseProfiler.exitLine(subNode);
 			}
 		}
 		
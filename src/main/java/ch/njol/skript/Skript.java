@@ -38,11 +38,13 @@ import ch.njol.skript.lang.Effect;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionInfo;
 import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.ParseHints;
 import ch.njol.skript.lang.Section;
 import ch.njol.skript.lang.SkriptEvent;
 import ch.njol.skript.lang.SkriptEventInfo;
 import ch.njol.skript.lang.Statement;
 import ch.njol.skript.lang.SyntaxElementInfo;
+import ch.njol.skript.lang.SyntaxIndex;
 import ch.njol.skript.lang.Trigger;
 import ch.njol.skript.lang.TriggerItem;
 import ch.njol.skript.lang.util.SimpleExpression;
@@ -85,6 +87,7 @@ import ch.njol.util.NullableChecker;
 import ch.njol.util.StringUtils;
 import ch.njol.util.coll.iterator.CheckedIterator;
 import ch.njol.util.coll.iterator.EnumerationIterable;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
 import com.google.gson.Gson;
 import org.bstats.bukkit.Metrics;
@@ -554,8 +557,10 @@ public final class Skript extends JavaPlugin implements Listener {
 		ChatMessages.registerListeners();
 
 		try {
+			long start = System.currentTimeMillis();
 			getAddonInstance().loadClasses("ch.njol.skript",
 				"conditions", "effects", "events", "expressions", "entity", "sections", "structures");
+			debug("Loaded syntax classes in " + (System.currentTimeMillis() - start) + " ms");
 		} catch (final Exception e) {
 			exception(e, "Could not load required .class files: " + e.getLocalizedMessage());
 			setEnabled(false);
@@ -1323,6 +1328,15 @@ public final class Skript extends JavaPlugin implements Listener {
 		acceptRegistrations = false;
 
 		Classes.onRegistrationsStop();
+
+		SyntaxIndex.build(Iterators.concat(statements.iterator(), sections.iterator(), expressions.iterator(),
+			events.iterator(), structures.iterator()));
+
+		if (!testing()) {
+			ParseHints.load(new File(getInstance().getDataFolder(), "parse-hints.txt"),
+				ParseHints.fingerprint(Iterators.concat(statements.iterator(), sections.iterator(),
+					expressions.iterator(), events.iterator(), structures.iterator())));
+		}
 	}
 
 	// ================ ADDONS ================
@@ -71,6 +71,8 @@ public final class SkriptAddon {
 
 	/**
 	 * Loads classes of the plugin by package. Useful for registering many syntax elements like Skript does it.
+	 * <p>
+	 * If the plugin's jar contains a {@link Utils#CLASS_INDEX class index}, only classes with a static initializer are loaded.
 	 * 
 	 * @param basePackage The base package to add to all sub packages, e.g. <tt>"ch.njol.skript"</tt>.
 	 * @param subPackages Which subpackages of the base package should be loaded, e.g. <tt>"expressions", "conditions", "effects"</tt>. Subpackages of these packages will be loaded
@@ -79,7 +81,7 @@ public final class SkriptAddon {
 	 * @return This SkriptAddon
 	 */
 	public SkriptAddon loadClasses(String basePackage, String... subPackages) throws IOException {
-		Utils.getClasses(plugin, basePackage, subPackages);
+		Utils.getClasses(plugin, true, basePackage, subPackages);
 		return this;
 	}
 
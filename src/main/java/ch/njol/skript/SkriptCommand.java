@@ -22,6 +22,7 @@ import ch.njol.skript.aliases.Aliases;
 import ch.njol.skript.command.CommandHelp;
 import ch.njol.skript.doc.Documentation;
 import ch.njol.skript.doc.HTMLGenerator;
+import ch.njol.skript.lang.parser.ParseProfiler;
 import ch.njol.skript.localization.ArgsMessage;
 import ch.njol.skript.localization.Language;
 import ch.njol.skript.localization.PluralizingArgsMessage;
@@ -51,6 +52,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -59,6 +61,11 @@ public class SkriptCommand implements CommandExecutor {
 	private static final String CONFIG_NODE = "skript command";
 	private static final ArgsMessage m_reloading = new ArgsMessage(CONFIG_NODE + ".reload.reloading");
 
+	/**
+	 * The amount of entries shown by /skript parse-report.
+	 */
+	private static final int REPORT_ENTRIES = 10;
+
 	// TODO /skript scripts show/list - lists all enabled and/or disabled scripts in the scripts folder and/or subfolders (maybe add a pattern [using * and **])
 	// TODO document this command on the website
 	private static final CommandHelp SKRIPT_COMMAND_HELP = new CommandHelp("<gray>/<gold>skript", SkriptColor.LIGHT_CYAN, CONFIG_NODE + ".help")
@@ -78,6 +85,13 @@ public class SkriptCommand implements CommandExecutor {
 			.add("check")
 			.add("changes")
 			.add("download")
+		).add(new CommandHelp("parse-report", SkriptColor.DARK_CYAN)
+			.add("start")
+			.add("stop")
+			.add("scripts")
+			.add("structures")
+			.add("lines")
+			.add("syntax")
 		).add("info"
 		).add("help");
 
@@ -356,6 +370,32 @@ public class SkriptCommand implements CommandExecutor {
 				}
 			}
 
+			else if (args[0].equalsIgnoreCase("parse-report")) {
+				if (args[1].equalsIgnoreCase("start")) {
+					ParseProfiler.start();
+					info(sender, "parse-report.started");
+				} else if (args[1].equalsIgnoreCase("stop")) {
+					ParseProfiler.stop();
+					File file = new File(Skript.getInstance().getDataFolder(), "parse-report.json");
+					try {
+						ParseProfiler.write(file);
+						info(sender, "parse-report.stopped", file.getPath());
+					} catch (IOException e) {
+						error(sender, "parse-report.io error", ExceptionUtils.toString(e));
+					}
+				} else {
+					ParseProfiler.Category category = ParseProfiler.Category.valueOf(args[1].toUpperCase(Locale.ENGLISH));
+					List<String> report = ParseProfiler.describe(category, REPORT_ENTRIES);
+					if (report.isEmpty()) {
+						info(sender, "parse-report.empty");
+					} else {
+						info(sender, "parse-report." + category.name().toLowerCase(Locale.ENGLISH), report.size());
+						for (String entry : report)
+							Skript.info(sender, " - " + entry);
+					}
+				}
+			}
+
 			else if (args[0].equalsIgnoreCase("info")) {
 				info(sender, "info.aliases");
 				info(sender, "info.documentation");
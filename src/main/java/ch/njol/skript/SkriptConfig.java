@@ -346,6 +346,15 @@ public class SkriptConfig {
 
 	public static final Option<Timespan> longParseTimeWarningThreshold = new Option<>("long parse time warning threshold", new Timespan(0));
 
+	public static final Option<Integer> cachedFunctionSize = new Option<>("cached function size", 1000)
+		.optional(true);
+
+	public static final Option<Timespan> cachedFunctionExpiry = new Option<>("cached function expiry", new Timespan(60 * 1000))
+		.optional(true);
+
+	public static final Option<Timespan> bulkBlockChangeBudget = new Option<>("bulk block change budget", new Timespan(10))
+		.optional(true);
+
 	/**
 	 * This should only be used in special cases
 	 */
@@ -21,6 +21,7 @@ package ch.njol.skript.aliases;
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAddon;
 import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.aliases.AliasesProvider.VariationGroup;
 import ch.njol.skript.config.Config;
 import ch.njol.skript.config.Node;
 import ch.njol.skript.config.SectionNode;
@@ -34,14 +35,19 @@ import ch.njol.skript.localization.Message;
 import ch.njol.skript.localization.Noun;
 import ch.njol.skript.localization.RegexMessage;
 import ch.njol.skript.log.BlockingLogHandler;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.RetainingLogHandler;
+import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.util.EnchantmentType;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.Version;
+import ch.njol.util.NonNullPair;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.eclipse.jdt.annotation.Nullable;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.net.URI;
@@ -51,16 +57,27 @@ import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public abstract class Aliases {
 
 	static final boolean USING_ITEM_COMPONENTS = Skript.isRunningMinecraft(1, 20, 5);
 
+	/**
+	 * The file in Skript's data folder used to cache the aliases loaded from alias files.
+	 */
+	private static final String CACHE_FILE = "aliases-cache.bin";
+
 	private static final AliasesProvider provider = createProvider(10000, null);
 	private static final AliasesParser parser = createParser(provider);
 	
@@ -412,6 +429,7 @@ public abstract class Aliases {
 	
 	private static void loadInternal() throws IOException {
 		Path dataFolder = Skript.getInstance().getDataFolder().toPath();
+		List<NonNullPair<Path, byte[]>> sources = new ArrayList<>();
 		
 		// Load aliases.zip OR aliases from jar (never both)
 		Path zipPath = dataFolder.resolve("aliases-english.zip");
@@ -422,7 +440,7 @@ public abstract class Aliases {
 				assert zipFs != null; // It better not be...
 				Path aliasesPath = zipFs.getPath("/");
 				assert aliasesPath != null;
-				loadDirectory(aliasesPath);
+				readDirectory(aliasesPath, sources);
 			}
 		} else { // Fall back to jar loading
 			try {
@@ -431,7 +449,7 @@ public abstract class Aliases {
 					assert zipFs != null;
 					Path aliasesPath = zipFs.getPath("/", "aliases-english");
 					assert aliasesPath != null;
-					loadDirectory(aliasesPath);
+					readDirectory(aliasesPath, sources);
 				}
 			} catch (URISyntaxException e) {
 				assert false;
@@ -443,11 +461,35 @@ public abstract class Aliases {
 		Path aliasesFolder = dataFolder.resolve("aliases");
 		if (Files.exists(aliasesFolder)) {
 			assert aliasesFolder != null;
-			loadDirectory(aliasesFolder);
+			readDirectory(aliasesFolder, sources);
 		}
 
-		// generate aliases from item names for any missing items
-		loadMissingAliases();
+		// Use the aliases cached by a previous start if the alias files didn't change
+		Path cacheFile = dataFolder.resolve(CACHE_FILE);
+		String hash = AliasesCache.hash(sources);
+		AliasesCache cache = AliasesCache.read(cacheFile, hash);
+		if (cache != null) {
+			cache.load(provider);
+		} else {
+			provider.startRecording();
+			RetainingLogHandler log = SkriptLogger.startRetainingLog();
+			try {
+				loadInParallel(sources);
+
+				// generate aliases from item names for any missing items
+				loadMissingAliases();
+			} finally {
+				log.stop();
+				cache = new AliasesCache(provider.stopRecording(), AliasesCache.toCachedLog(log.getLog()));
+				SkriptLogger.logAll(log.getLog());
+			}
+
+			try {
+				cache.write(cacheFile, hash);
+			} catch (IOException e) {
+				Skript.warning("Could not save the aliases cache: " + e.getLocalizedMessage());
+			}
+		}
 		
 		// Update tracked item types
 		for (Map.Entry<String, ItemType> entry : trackedTypes.entrySet()) {
@@ -460,6 +502,100 @@ public abstract class Aliases {
 				entry.getValue().setTo(type);
 		}
 	}
+
+	/**
+	 * Loads the given alias files, parsing them in parallel.
+	 * The aliases of each file are added in the order of the files afterwards, so that the result is the same as
+	 * when loading the files one after another.
+	 * <p>
+	 * Files are parsed with the variations of the files before them that were already parsed, which are usually none.
+	 * A file that used a variation that turns out to be defined by an earlier file is parsed again once
+	 * the variations of all earlier files are known.
+	 * @param sources The alias files and their contents, in the order they should be loaded.
+	 */
+	private static void loadInParallel(List<NonNullPair<Path, byte[]>> sources) {
+		List<ParsedFile> files = sources.parallelStream()
+			.map(source -> new ParsedFile(source, Collections.emptyMap()))
+			.collect(Collectors.toList());
+
+		Map<String, VariationGroup> variations = new HashMap<>();
+		for (ParsedFile file : files) {
+			for (String name : file.provider.getMissingVariations()) {
+				if (variations.containsKey(name)) {
+					file = new ParsedFile(file.source, new HashMap<>(variations));
+					break;
+				}
+			}
+
+			SkriptLogger.logAll(file.log);
+			for (AliasesCache.Alias alias : file.provider.getAliases()) {
+				try {
+					alias.addTo(provider);
+				} catch (InvalidMinecraftIdException e) {
+					Skript.error(AliasesParser.m_invalid_minecraft_id.toString(e.getId()));
+				}
+			}
+			variations.putAll(file.provider.getVariationGroups());
+			file.provider.getVariationGroups().forEach(provider::addVariationGroup);
+		}
+	}
+
+	/**
+	 * The aliases and variations of an alias file, parsed with a {@link DeferredAliasesProvider}.
+	 */
+	private static final class ParsedFile {
+
+		private final NonNullPair<Path, byte[]> source;
+		private final DeferredAliasesProvider provider;
+		private final Collection<LogEntry> log;
+
+		/**
+		 * Parses the given alias file, retaining its log.
+		 * @param variations The variations defined by the files loaded before this one.
+		 */
+		ParsedFile(NonNullPair<Path, byte[]> source, Map<String, VariationGroup> variations) {
+			this.source = source;
+			this.provider = new DeferredAliasesProvider(variations);
+			AliasesParser parser = createParser(provider);
+			RetainingLogHandler log = SkriptLogger.startRetainingLog();
+			try {
+				Config config = new Config(new ByteArrayInputStream(source.getSecond()), "" + source.getFirst().getFileName(), false, false, "=");
+				for (Node n : config.getMainNode()) {
+					if (!(n instanceof SectionNode)) {
+						Skript.error(m_outside_section.toString());
+						continue;
+					}
+					parser.load((SectionNode) n);
+				}
+			} catch (IOException e) {
+				Skript.exception(e, "Could not load aliases from " + source.getFirst());
+			} finally {
+				log.stop();
+			}
+			this.log = log.getLog();
+		}
+
+	}
+
+	/**
+	 * Reads the alias files in the given directory and its subdirectories, in the order they are loaded by {@link #loadDirectory(Path)}.
+	 * @param dir Directory of aliases.
+	 * @param sources The list to add the files and their contents to.
+	 * @throws IOException If something goes wrong with reading.
+	 */
+	private static void readDirectory(Path dir, List<NonNullPair<Path, byte[]>> sources) throws IOException {
+		List<Path> files;
+		try (Stream<Path> stream = Files.list(dir)) {
+			files = stream.sorted().collect(Collectors.toList());
+		}
+		for (Path f : files) {
+			String name = f.getFileName().toString();
+			if (Files.isDirectory(f) && !name.startsWith("."))
+				readDirectory(f, sources);
+			else if (name.endsWith(".sk"))
+				sources.add(new NonNullPair<>(f, Files.readAllBytes(f)));
+		}
+	}
 	
 	/**
 	 * Loads aliases from given directory.
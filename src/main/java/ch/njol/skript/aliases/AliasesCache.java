@@ -0,0 +1,237 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.aliases;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.AliasesProvider.AliasName;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.SkriptLogger;
+import ch.njol.util.NonNullPair;
+import com.google.gson.Gson;
+import org.bukkit.Bukkit;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Level;
+
+/**
+ * A binary cache of the aliases loaded from Skript's alias files, so that the files don't have to be parsed
+ * again on every start.
+ * <p>
+ * The cache holds every alias as it was added to the {@link AliasesProvider}, i.e. after its patterns and
+ * variations have been expanded, together with the warnings and errors printed while parsing the files.
+ * It is keyed by a hash of the alias files, the Skript version and the server version, and discarded if any of them changes.
+ * The items of the aliases are not cached, they are created from the cached aliases when loading them.
+ */
+final class AliasesCache {
+
+	/**
+	 * Identifies a file as an aliases cache, changed whenever the format changes.
+	 */
+	private static final int MAGIC = 0x534B4131; // SKA1
+
+	private static final Gson GSON = new Gson();
+
+	/**
+	 * The aliases, in the order they were added.
+	 */
+	private final List<Alias> aliases;
+
+	/**
+	 * The warnings and errors printed while parsing the alias files.
+	 */
+	private final List<NonNullPair<Level, String>> log;
+
+	AliasesCache(List<Alias> aliases, List<NonNullPair<Level, String>> log) {
+		this.aliases = aliases;
+		this.log = log;
+	}
+
+	/**
+	 * Adds the cached aliases to the given provider and prints the cached warnings and errors.
+	 */
+	void load(AliasesProvider provider) {
+		for (NonNullPair<Level, String> entry : log)
+			SkriptLogger.log(entry.getFirst(), entry.getSecond());
+		for (Alias alias : aliases)
+			alias.addTo(provider);
+	}
+
+	/**
+	 * Computes the hash of the given alias files, which also covers the versions of Skript and the server.
+	 *
+	 * @param sources The alias files and their contents, in the order they are loaded.
+	 */
+	static String hash(List<NonNullPair<Path, byte[]>> sources) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update((Skript.getVersion() + "\0" + Bukkit.getVersion()).getBytes(StandardCharsets.UTF_8));
+		for (NonNullPair<Path, byte[]> source : sources) {
+			digest.update((byte) 0);
+			digest.update(source.getFirst().toString().getBytes(StandardCharsets.UTF_8));
+			digest.update((byte) 0);
+			digest.update(source.getSecond());
+		}
+		StringBuilder hash = new StringBuilder();
+		for (byte b : digest.digest())
+			hash.append(String.format(Locale.ENGLISH, "%02x", b));
+		return hash.toString();
+	}
+
+	/**
+	 * Reads the cache from the given file.
+	 *
+	 * @param hash The hash of the current alias files, see {@link #hash(List)}.
+	 * @return The cache, or null if the file doesn't exist, is invalid, or was created for different alias files.
+	 */
+	@Nullable
+	static AliasesCache read(Path file, String hash) {
+		if (!Files.exists(file))
+			return null;
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+			if (in.readInt() != MAGIC || !in.readUTF().equals(hash))
+				return null;
+
+			int logSize = in.readInt();
+			List<NonNullPair<Level, String>> log = new ArrayList<>(logSize);
+			for (int i = 0; i < logSize; i++)
+				log.add(new NonNullPair<>(Level.parse(in.readUTF()), in.readUTF()));
+
+			int aliasCount = in.readInt();
+			List<Alias> aliases = new ArrayList<>(aliasCount);
+			for (int i = 0; i < aliasCount; i++) {
+				AliasName name = new AliasName(in.readUTF(), in.readUTF(), in.readInt());
+				String id = in.readUTF().intern();
+				Map<String, Object> tags = null;
+				if (in.readBoolean()) {
+					//noinspection unchecked
+					tags = (Map<String, Object>) GSON.fromJson(in.readUTF(), Object.class);
+				}
+				int stateCount = in.readInt();
+				Map<String, String> blockStates = new HashMap<>(stateCount);
+				for (int j = 0; j < stateCount; j++)
+					blockStates.put(in.readUTF(), in.readUTF());
+				aliases.add(new Alias(name, id, tags, blockStates));
+			}
+			return new AliasesCache(aliases, log);
+		} catch (IOException | RuntimeException e) {
+			Skript.debug("Discarding invalid aliases cache: " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Writes this cache to the given file, replacing any previous cache.
+	 *
+	 * @param hash The hash of the alias files the aliases were loaded from, see {@link #hash(List)}.
+	 */
+	void write(Path file, String hash) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			out.writeInt(MAGIC);
+			out.writeUTF(hash);
+
+			out.writeInt(log.size());
+			for (NonNullPair<Level, String> entry : log) {
+				out.writeUTF(entry.getFirst().getName());
+				out.writeUTF(entry.getSecond());
+			}
+
+			out.writeInt(aliases.size());
+			for (Alias alias : aliases) {
+				out.writeUTF(alias.name.singular);
+				out.writeUTF(alias.name.plural);
+				out.writeInt(alias.name.gender);
+				out.writeUTF(alias.id);
+				out.writeBoolean(alias.tags != null);
+				if (alias.tags != null)
+					out.writeUTF(GSON.toJson(alias.tags));
+				out.writeInt(alias.blockStates.size());
+				for (Map.Entry<String, String> state : alias.blockStates.entrySet()) {
+					out.writeUTF(state.getKey());
+					out.writeUTF(state.getValue());
+				}
+			}
+		}
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.write(temp, bytes.toByteArray());
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	/**
+	 * Converts the given log entries to the warnings and errors to cache.
+	 */
+	static List<NonNullPair<Level, String>> toCachedLog(Iterable<LogEntry> entries) {
+		List<NonNullPair<Level, String>> log = new ArrayList<>();
+		for (LogEntry entry : entries) {
+			if (entry.getLevel().intValue() >= Level.WARNING.intValue())
+				log.add(new NonNullPair<>(entry.getLevel(), entry.getMessage()));
+		}
+		return log;
+	}
+
+	/**
+	 * An alias as passed to {@link AliasesProvider#addAlias(AliasName, String, Map, Map)}.
+	 */
+	static final class Alias {
+
+		private final AliasName name;
+		private final String id;
+		@Nullable
+		private final Map<String, Object> tags;
+		private final Map<String, String> blockStates;
+
+		Alias(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) {
+			this.name = name;
+			this.id = id;
+			this.tags = tags;
+			this.blockStates = blockStates;
+		}
+
+		/**
+		 * Adds this alias to the given provider.
+		 *
+		 * @throws InvalidMinecraftIdException If the id of this alias is not a valid Minecraft id.
+		 */
+		void addTo(AliasesProvider provider) {
+			provider.addAlias(name, id, tags, new HashMap<>(blockStates));
+		}
+
+	}
+
+}
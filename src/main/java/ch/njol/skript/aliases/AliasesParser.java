@@ -53,7 +53,7 @@ public class AliasesParser {
 	private static final ArgsMessage m_not_enough_brackets = new ArgsMessage("aliases.not enough brackets");
 	private static final ArgsMessage m_too_many_brackets = new ArgsMessage("aliases.too many brackets");
 	private static final ArgsMessage m_unknown_variation = new ArgsMessage("aliases.unknown variation");
-	private static final ArgsMessage m_invalid_minecraft_id = new ArgsMessage("aliases.invalid minecraft id");
+	static final ArgsMessage m_invalid_minecraft_id = new ArgsMessage("aliases.invalid minecraft id");
 	private static final Message m_empty_alias = new Message("aliases.empty alias");
 	
 	/**
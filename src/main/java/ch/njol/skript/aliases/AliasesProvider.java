@@ -169,6 +169,12 @@ public class AliasesProvider {
 	 * Allows looking up aliases based on item datas created runtime.
 	 */
 	private final AliasesMap aliasesMap;
+
+	/**
+	 * The aliases added since {@link #startRecording()} was called, or null if not recording.
+	 */
+	@Nullable
+	private List<AliasesCache.Alias> recording;
 	
 	/**
 	 * Constructs a new aliases provider with no data.
@@ -273,6 +279,9 @@ public class AliasesProvider {
 	 * @param blockStates Block states.
 	 */
 	public void addAlias(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) {
+		List<AliasesCache.Alias> recording = this.recording;
+		Map<String, String> recordedStates = recording != null ? new HashMap<>(blockStates) : null;
+
 		// First, try to find if aliases already has a type with this id
 		// (so that aliases can refer to each other)
 		ItemType typeOfId = getAlias(id);
@@ -359,6 +368,28 @@ public class AliasesProvider {
 				type.add(newData);
 			}
 		}
+
+		if (recording != null) {
+			assert recordedStates != null;
+			recording.add(new AliasesCache.Alias(name, id, tags, recordedStates));
+		}
+	}
+
+	/**
+	 * Starts recording the aliases added to this provider, so that they can be cached.
+	 */
+	void startRecording() {
+		recording = new ArrayList<>();
+	}
+
+	/**
+	 * Stops recording the aliases added to this provider.
+	 * @return The aliases added since {@link #startRecording()} was called, in the order they were added.
+	 */
+	List<AliasesCache.Alias> stopRecording() {
+		List<AliasesCache.Alias> recording = this.recording;
+		this.recording = null;
+		return recording != null ? recording : Collections.emptyList();
 	}
 	
 	public void addVariationGroup(String name, VariationGroup group) {
@@ -0,0 +1,108 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.aliases;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An aliases provider that collects the aliases and variations of a single alias file instead of adding them,
+ * so that alias files can be parsed independently of each other and added to the actual provider afterwards.
+ */
+final class DeferredAliasesProvider extends AliasesProvider {
+
+	/**
+	 * The variations defined by the files loaded before this one.
+	 */
+	private final Map<String, VariationGroup> inherited;
+
+	/**
+	 * The variations defined by this file, in the order they were defined.
+	 */
+	private final Map<String, VariationGroup> variations = new LinkedHashMap<>();
+
+	/**
+	 * The variations used by this file that neither this file nor the inherited variations defined.
+	 */
+	private final Set<String> missingVariations = new HashSet<>();
+
+	/**
+	 * The aliases of this file, in the order they were added.
+	 */
+	private final List<AliasesCache.Alias> aliases = new ArrayList<>();
+
+	/**
+	 * @param inherited The variations defined by the files loaded before this one, which this file may use.
+	 */
+	DeferredAliasesProvider(Map<String, VariationGroup> inherited) {
+		super(100, null);
+		this.inherited = inherited;
+	}
+
+	@Override
+	public void addAlias(AliasName name, String id, @Nullable Map<String, Object> tags, Map<String, String> blockStates) {
+		aliases.add(new AliasesCache.Alias(name, id, tags, new HashMap<>(blockStates)));
+	}
+
+	@Override
+	public void addVariationGroup(String name, VariationGroup group) {
+		variations.put(name, group);
+	}
+
+	@Override
+	@Nullable
+	public VariationGroup getVariationGroup(String name) {
+		VariationGroup group = variations.get(name);
+		if (group == null)
+			group = inherited.get(name);
+		if (group == null)
+			missingVariations.add(name);
+		return group;
+	}
+
+	/**
+	 * @return The aliases of the file, in the order they were added.
+	 */
+	List<AliasesCache.Alias> getAliases() {
+		return aliases;
+	}
+
+	/**
+	 * @return The variations defined by the file, in the order they were defined.
+	 */
+	Map<String, VariationGroup> getVariationGroups() {
+		return Collections.unmodifiableMap(variations);
+	}
+
+	/**
+	 * @return The variations the file used without them being defined.
+	 */
+	Set<String> getMissingVariations() {
+		return missingVariations;
+	}
+
+}
@@ -59,6 +59,7 @@ import java.io.StreamCorruptedException;
 import java.lang.reflect.Field;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -136,6 +137,27 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	@Nullable
 	private ItemMeta globalMeta;
 
+	private static final Material[] MATERIALS = Material.values();
+
+	/**
+	 * The index of the bit in {@link #materials} that is set if this type contains an ItemData that represents anything.
+	 */
+	private static final int ANY_MATERIAL = MATERIALS.length;
+
+	/**
+	 * The materials of {@link #types}, indexed by their ordinal, or null if they have to be computed again.
+	 * Used to rule out materials that none of the types can match without comparing the types.
+	 */
+	@Nullable
+	private transient BitSet materials;
+
+	/**
+	 * An ItemData of each material without tags, indexed by the ordinal of the material.
+	 * Used by {@link #isOfType(Material)}, which would otherwise create a new ItemData for every check.
+	 * They are only compared against and never modified.
+	 */
+	private static final ItemData[] PLAIN_ITEM_DATAS = new ItemData[MATERIALS.length];
+
 	void setItem(final @Nullable ItemType item) {
 		if (equals(item)) { // can happen if someone defines a 'x' and 'x item/block' alias that have the same value, e.g. 'dirt' and 'dirt block'
 			this.item = null;
@@ -229,6 +251,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 		for (final ItemData d : i) {
 			types.add(d.clone());
 		}
+		materials = null;
 	}
 
 	public ItemType(Block block) {
@@ -240,6 +263,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	 */
 	public void modified() {
 		item = block = null;
+		materials = null;
 	}
 
 	/**
@@ -289,7 +313,9 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	public boolean isOfType(@Nullable ItemStack item) {
 		if (item == null)
-			return isOfType(Material.AIR, null);
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(item.getType()))
+			return false;
 		return isOfType(new ItemData(item));
 	}
 
@@ -303,18 +329,23 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 
 	public boolean isOfType(@Nullable BlockData blockData) {
 		if (blockData == null)
-			return isOfType(Material.AIR, null);
-
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(blockData.getMaterial()))
+			return false;
 		return isOfType(new ItemData(blockData));
 	}
 
 	public boolean isOfType(@Nullable Block block) {
 		if (block == null)
-			return isOfType(Material.AIR, null);
+			return isOfType(Material.AIR);
+		if (!mayBeOfType(block.getType()))
+			return false;
 		return isOfType(block.getBlockData());
 	}
 
 	public boolean isOfType(ItemData type) {
+		if (!type.isAnything && type.type != null && !mayBeOfType(type.type))
+			return false;
 		for (final ItemData myType : types) {
 			if (myType.equals(type)) {
 				return true;
@@ -324,12 +355,43 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 	}
 
 	public boolean isOfType(Material id, @Nullable String tags) {
+		if (tags == null)
+			return isOfType(id);
+		if (!mayBeOfType(id))
+			return false;
 		return isOfType(new ItemData(id, tags));
 	}
 
 	public boolean isOfType(Material id) {
-		// TODO avoid object creation
-		return isOfType(new ItemData(id, (String) null));
+		if (!mayBeOfType(id))
+			return false;
+		ItemData plain = PLAIN_ITEM_DATAS[id.ordinal()];
+		if (plain == null)
+			PLAIN_ITEM_DATAS[id.ordinal()] = plain = new ItemData(id, (String) null);
+		return isOfType(plain);
+	}
+
+	/**
+	 * Checks whether an item of the given material could be of this type, i.e. whether any of the types
+	 * of this item type has the material or represents anything. Items that pass this check still need to be compared
+	 * against the types, as the types may also require tags or block states.
+	 * @param material The material of an item.
+	 * @return False if no item of the given material can be of this type.
+	 */
+	private boolean mayBeOfType(Material material) {
+		BitSet materials = this.materials;
+		if (materials == null) {
+			materials = new BitSet(ANY_MATERIAL + 1);
+			for (ItemData type : types) {
+				if (type.isAnything) {
+					materials.set(ANY_MATERIAL);
+				} else if (type.type != null) {
+					materials.set(type.type.ordinal());
+				}
+			}
+			this.materials = materials;
+		}
+		return materials.get(material.ordinal()) || materials.get(ANY_MATERIAL);
 	}
 
 	/**
@@ -1192,6 +1254,7 @@ public class ItemType implements Unit, Iterable<ItemData>, Container<ItemStack>,
 				}
 			}
 		}
+		materials = null;
 	}
 
 	/**
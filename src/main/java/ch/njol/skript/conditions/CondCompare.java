@@ -52,6 +52,7 @@ import ch.njol.skript.util.Utils;
 import ch.njol.util.Checker;
 import ch.njol.util.Kleenean;
 import org.skriptlang.skript.lang.util.Cyclical;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 @Name("Comparison")
 @Description({"A very general condition, it simply compares two values. Usually you can only compare for equality (e.g. block is/isn't of &lt;type&gt;), " +
@@ -109,6 +110,11 @@ public class CondCompare extends Condition implements VerboseAssert {
 	@Nullable
 	@SuppressWarnings("rawtypes")
 	private Comparator comparator;
+
+	/**
+	 * Used when no comparator could be determined while parsing, from the types of the compared objects.
+	 */
+	private final InlineCache<ComparatorInfo<?, ?>> comparatorCache = new InlineCache<>(Comparators::getComparatorInfo);
 	
 	@Override
 	public boolean init(final Expression<?>[] vars, final int matchedPattern, final Kleenean isDelayed, final ParseResult parser) {
@@ -354,7 +360,7 @@ public class CondCompare extends Condition implements VerboseAssert {
 		return first.check(event, (Checker<Object>) o1 ->
 			second.check(event, (Checker<Object>) o2 -> {
 				if (third == null)
-					return relation.isImpliedBy(comparator != null ? comparator.compare(o1, o2) : Comparators.compare(o1, o2));
+					return relation.isImpliedBy(compare(o1, o2));
 				return third.check(event, (Checker<Object>) o3 -> {
 					boolean isBetween;
 					if (comparator != null) {
@@ -371,15 +377,15 @@ public class CondCompare extends Condition implements VerboseAssert {
 						}
 					} else {
 						if (o1 instanceof Cyclical<?> && o2 instanceof Cyclical<?> && o3 instanceof Cyclical<?>) {
-							if (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o2, o3)))
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
+							if (Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o2, o3)))
+								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) || Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3));
 							else
-								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3));
+								isBetween = Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3));
 						} else {
 							isBetween =
-									(Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)))
+									(Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o2)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o3)))
 									// Check OPPOSITE (switching o2 / o3)
-									|| (Relation.GREATER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(Comparators.compare(o1, o2)));
+									|| (Relation.GREATER_OR_EQUAL.isImpliedBy(compare(o1, o3)) && Relation.SMALLER_OR_EQUAL.isImpliedBy(compare(o1, o2)));
 						}
 					}
 					return relation == Relation.NOT_EQUAL ^ isBetween;
@@ -418,12 +424,28 @@ public class CondCompare extends Condition implements VerboseAssert {
 		if (first.length != second.length)
 			return !shouldMatch;
 		for (int i = 0; i < first.length; i++) {
-			if (!relation.isImpliedBy(comparator != null ? comparator.compare(first[i], second[i]) : Comparators.compare(first[i], second[i])))
+			if (!relation.isImpliedBy(compare(first[i], second[i])))
 				return !shouldMatch;
 		}
 		return shouldMatch;
 	}
 
+	/**
+	 * Compares two objects like {@link Comparators#compare(Object, Object)},
+	 * but looks up the comparator of their types in this condition's {@link #comparatorCache}.
+	 */
+	@SuppressWarnings("unchecked")
+	private Relation compare(@Nullable Object first, @Nullable Object second) {
+		if (comparator != null)
+			return comparator.compare(first, second);
+		if (first == null || second == null)
+			return Relation.NOT_EQUAL;
+		if (first == second)
+			return Relation.EQUAL;
+		ComparatorInfo<Object, Object> info = (ComparatorInfo<Object, Object>) comparatorCache.get(first.getClass(), second.getClass());
+		return info != null ? info.getComparator().compare(first, second) : Relation.NOT_EQUAL;
+	}
+
 	@Override
 	public String toString(final @Nullable Event event, final boolean debug) {
 		String s;
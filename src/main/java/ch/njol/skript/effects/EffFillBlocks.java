@@ -0,0 +1,197 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Trigger;
+import ch.njol.skript.lang.TriggerItem;
+import ch.njol.skript.timings.SkriptTimings;
+import ch.njol.skript.util.BulkBlockChange;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Kleenean;
+import org.bukkit.Location;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+@Name("Fill Blocks")
+@Description({
+	"Sets all blocks between two locations or within a radius around a location to the given block, " +
+		"or only the blocks of the given types when using 'replace'.",
+	"Large changes are spread over several ticks, so that the server doesn't stall while they are applied. " +
+		"Use 'and wait' to only continue once all blocks have been changed, " +
+		"or check the <a href='./expressions.html#ExprBulkBlockChangeProgress'>progress</a> of the last change."
+})
+@Examples({
+	"fill blocks within {arena::corner::1} and {arena::corner::2} with air",
+	"fill blocks in radius 10 around player with glass and wait",
+	"replace all stone and dirt within {_a} and {_b} with diamond ore",
+	"replace all water in radius 30 around {_center} with air and wait",
+	"send \"The arena has been reset!\""
+})
+@Since("INSERT VERSION")
+public class EffFillBlocks extends Effect {
+
+	static {
+		Skript.registerEffect(EffFillBlocks.class,
+			"fill [all] blocks (within|between) %location% and %location% with %itemtype/blockdata% [wait:and wait]",
+			"fill [all] blocks in radius %number% (of|around) %location% with %itemtype/blockdata% [wait:and wait]",
+			"replace (all|every|) %itemtypes% (within|between) %location% and %location% with %itemtype/blockdata% [wait:and wait]",
+			"replace (all|every|) %itemtypes% in radius %number% (of|around) %location% with %itemtype/blockdata% [wait:and wait]");
+	}
+
+	/**
+	 * The last change that was started by this effect.
+	 */
+	@Nullable
+	private static BulkBlockChange lastChange;
+
+	/**
+	 * @return the last change that was started by this effect, or {@code null} if none was started yet.
+	 */
+	@Nullable
+	public static BulkBlockChange getLastChange() {
+		return lastChange;
+	}
+
+	@Nullable
+	private Expression<ItemType> filter;
+	@Nullable
+	private Expression<Location> first, second;
+	@Nullable
+	private Expression<Number> radius;
+	@Nullable
+	private Expression<Location> center;
+	private Expression<?> replacement;
+	private boolean wait;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+		int index = 0;
+		if (matchedPattern >= 2)
+			filter = (Expression<ItemType>) exprs[index++];
+		if (matchedPattern % 2 == 0) {
+			first = (Expression<Location>) exprs[index++];
+			second = (Expression<Location>) exprs[index++];
+		} else {
+			radius = (Expression<Number>) exprs[index++];
+			center = (Expression<Location>) exprs[index++];
+		}
+		replacement = exprs[index];
+		wait = parseResult.hasTag("wait");
+		if (wait)
+			getParser().setHasDelayBefore(Kleenean.TRUE);
+		return true;
+	}
+
+	@Override
+	@Nullable
+	protected TriggerItem walk(Event event) {
+		debug(event, true);
+		BulkBlockChange change = createChange(event);
+		if (change == null)
+			return getNext();
+		lastChange = change;
+		change.start();
+
+		TriggerItem next = getNext();
+		if (!wait || change.isDone())
+			return next;
+		if (next == null || !Skript.getInstance().isEnabled()) // See https://github.com/SkriptLang/Skript/issues/3702
+			return null;
+
+		Delay.addDelayedEvent(event);
+		Object localVars = Variables.removeLocals(event); // Back up local variables
+		change.whenComplete(() -> {
+			// Re-set local variables
+			if (localVars != null)
+				Variables.setLocalVariables(event, localVars);
+
+			Object timing = null;
+			if (SkriptTimings.enabled()) { // getTrigger call is not free, do it only if we must
+				Trigger trigger = getTrigger();
+				if (trigger != null)
+					timing = SkriptTimings.start(trigger.getDebugLabel());
+			}
+
+			TriggerItem.walk(next, event);
+			Variables.removeLocals(event); // Clean up local vars, we may be exiting now
+
+			SkriptTimings.stop(timing); // Stop timing if it was even started
+		});
+		return null;
+	}
+
+	@Nullable
+	private BulkBlockChange createChange(Event event) {
+		Object replacement = this.replacement.getSingle(event);
+		if (replacement == null)
+			return null;
+		ItemType[] filter = null;
+		if (this.filter != null) {
+			filter = this.filter.getArray(event);
+			if (filter.length == 0)
+				return null;
+		}
+
+		if (radius != null) {
+			assert center != null;
+			Number radius = this.radius.getSingle(event);
+			Location center = this.center.getSingle(event);
+			if (radius == null || center == null || center.getWorld() == null || radius.doubleValue() < 0)
+				return null;
+			return BulkBlockChange.sphere(center, radius.doubleValue(), filter, replacement);
+		}
+
+		assert first != null && second != null;
+		Location first = this.first.getSingle(event);
+		Location second = this.second.getSingle(event);
+		if (first == null || second == null || first.getWorld() == null || first.getWorld() != second.getWorld())
+			return null;
+		return BulkBlockChange.cuboid(first, second, filter, replacement);
+	}
+
+	@Override
+	protected void execute(Event event) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public String toString(@Nullable Event event, boolean debug) {
+		String region;
+		if (radius != null) {
+			assert center != null;
+			region = "in radius " + radius.toString(event, debug) + " around " + center.toString(event, debug);
+		} else {
+			assert first != null && second != null;
+			region = "within " + first.toString(event, debug) + " and " + second.toString(event, debug);
+		}
+		return (filter != null ? "replace " + filter.toString(event, debug) : "fill blocks") + " " + region
+			+ " with " + replacement.toString(event, debug) + (wait ? " and wait" : "");
+	}
+
+}
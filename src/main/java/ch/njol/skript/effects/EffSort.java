@@ -39,6 +39,9 @@ import ch.njol.util.Kleenean;
 import ch.njol.util.Pair;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.comparator.ComparatorInfo;
+import org.skriptlang.skript.lang.comparator.Comparators;
+import org.skriptlang.skript.lang.util.InlineCache;
 import org.jetbrains.annotations.UnknownNullability;
 
 import java.util.HashSet;
@@ -76,6 +79,8 @@ public class EffSort extends Effect implements InputSource {
 
 	private Set<ExprInput<?>> dependentInputs = new HashSet<>();
 
+	private final InlineCache<ComparatorInfo<?, ?>> comparatorCache = new InlineCache<>(Comparators::getComparatorInfo);
+
 	@Nullable
 	private Object currentValue;
 	@UnknownNullability
@@ -108,9 +113,7 @@ public class EffSort extends Effect implements InputSource {
 		Object[] sorted;
 		if (mappingExpr == null) {
 			try {
-				sorted = unsortedObjects.stream(event)
-					.sorted(ExprSortedList::compare)
-					.toArray();
+				sorted = ExprSortedList.sort(unsortedObjects.getArray(event), comparatorCache);
 			} catch (IllegalArgumentException | ClassCastException e) {
 				return;
 			}
@@ -126,10 +129,11 @@ public class EffSort extends Effect implements InputSource {
 				valueToMappedValue.put(currentValue, mappedValue);
 			}
 			try {
-				sorted = valueToMappedValue.entrySet().stream()
-					.sorted(Map.Entry.comparingByValue(ExprSortedList::compare))
-					.map(Map.Entry::getKey)
-					.toArray();
+				sorted = ExprSortedList.sortByKeys(
+					valueToMappedValue.keySet().toArray(),
+					valueToMappedValue.values().toArray(),
+					comparatorCache
+				);
 			} catch (IllegalArgumentException | ClassCastException e) {
 				return;
 			}
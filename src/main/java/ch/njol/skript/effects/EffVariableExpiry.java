@@ -0,0 +1,100 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.effects;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Effect;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.util.Timespan;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+@Name("Variable Expiry")
+@Description({
+	"Makes a global variable expire after some time, after which it will be deleted automatically.",
+	"Expired variables are deleted both from memory and from the database, which makes this ideal for cooldowns.",
+	"Changing the value of a variable keeps its expiry, but deleting it removes the expiry.",
+	"If the variable is a list variable, the whole list will be deleted once it expires."
+})
+@Examples({
+	"set {cooldown::%player's uuid%::kit} to now",
+	"make {cooldown::%player's uuid%::kit} expire in 10 minutes",
+	"",
+	"make {cache::*} never expire"
+})
+@Since("INSERT VERSION")
+public class EffVariableExpiry extends Effect {
+
+	static {
+		Skript.registerEffect(EffVariableExpiry.class,
+				"make %~objects% expire (in|after) %timespan%",
+				"make %~objects% never expire");
+	}
+
+	@SuppressWarnings("NotNullFieldNotInitialized")
+	private Variable<?> variable;
+	@Nullable
+	private Expression<Timespan> timeToLive;
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+		if (!(exprs[0] instanceof Variable)) {
+			Skript.error("Only variables can expire");
+			return false;
+		}
+		variable = (Variable<?>) exprs[0];
+		if (variable.isLocal()) {
+			Skript.error("Local variables can't expire, they are deleted at the end of the trigger anyway");
+			return false;
+		}
+		if (matchedPattern == 0)
+			timeToLive = (Expression<Timespan>) exprs[1];
+		return true;
+	}
+
+	@Override
+	protected void execute(Event event) {
+		String name = variable.getName().toString(event);
+		if (timeToLive == null) {
+			Variables.setExpiry(name, null);
+			return;
+		}
+
+		Timespan timespan = timeToLive.getSingle(event);
+		if (timespan != null)
+			Variables.setExpiry(name, timespan);
+	}
+
+	@Override
+	public String toString(@Nullable Event event, boolean debug) {
+		if (timeToLive == null)
+			return "make " + variable.toString(event, debug) + " never expire";
+		return "make " + variable.toString(event, debug) + " expire in " + timeToLive.toString(event, debug);
+	}
+
+}
@@ -571,11 +571,13 @@ public abstract class EntityData<E extends Entity> implements SyntaxElement, Ygg
 		final List<E> list = new ArrayList<>();
 		if (worlds == null)
 			worlds = Bukkit.getWorlds().toArray(new World[0]);
+		// Only look up entities of the classes the types can match, rather than all entities of the return type
+		final Class<? extends Entity>[] classes = EntityQueries.getEntityClasses(types);
 		for (final World w : worlds) {
-			for (final E e : w.getEntitiesByClass(type)) {
+			for (final Entity e : classes.length == 1 ? w.getEntitiesByClass(classes[0]) : w.getEntitiesByClasses(classes)) {
 				for (final EntityData<?> t : types) {
 					if (t.isInstance(e)) {
-						list.add(e);
+						list.add((E) e);
 						break;
 					}
 				}
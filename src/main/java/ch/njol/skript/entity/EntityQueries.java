@@ -0,0 +1,145 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.entity;
+
+import ch.njol.skript.Skript;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Spatial queries for entities matching {@link EntityData}s.
+ * <p>
+ * Radius queries only visit the loaded chunks that intersect the sphere around the center,
+ * and reject entities by their class before checking the entity data itself.
+ */
+public final class EntityQueries {
+
+	private EntityQueries() {}
+
+	/**
+	 * The amount of chunks in the range of a radius query above which the loaded chunks of the world are counted,
+	 * to visit only those instead of checking every chunk in the range.
+	 */
+	private static final int MAX_CHECKED_CHUNKS = 256;
+
+	/**
+	 * Maps the given entity datas to the Bukkit entity classes they can match,
+	 * leaving out classes that are subclasses of other classes in the result.
+	 *
+	 * @param types The entity datas
+	 * @return The classes of the entities the entity datas can match
+	 */
+	public static Class<? extends Entity>[] getEntityClasses(EntityData<?>[] types) {
+		Set<Class<? extends Entity>> classes = new LinkedHashSet<>();
+		outer:
+		for (EntityData<?> type : types) {
+			Class<? extends Entity> entityClass = type.getType();
+			for (Class<? extends Entity> other : classes) {
+				if (other.isAssignableFrom(entityClass))
+					continue outer;
+			}
+			classes.removeIf(entityClass::isAssignableFrom);
+			classes.add(entityClass);
+		}
+		//noinspection unchecked
+		return classes.toArray(new Class[0]);
+	}
+
+	/**
+	 * Gets all entities matching any of the given entity datas whose location is within the given radius of the center.
+	 *
+	 * @param types The entity datas to match
+	 * @param center The center of the sphere, which must have a world
+	 * @param radius The radius of the sphere
+	 * @return The matching entities
+	 */
+	public static Entity[] getNearbyEntities(EntityData<?>[] types, Location center, double radius) {
+		World world = center.getWorld();
+		assert world != null;
+		Class<? extends Entity>[] classes = getEntityClasses(types);
+		double radiusSquared = radius * radius * Skript.EPSILON_MULT;
+		double x = center.getX(), z = center.getZ();
+		int minChunkX = Location.locToBlock(x - radius) >> 4, maxChunkX = Location.locToBlock(x + radius) >> 4;
+		int minChunkZ = Location.locToBlock(z - radius) >> 4, maxChunkZ = Location.locToBlock(z + radius) >> 4;
+
+		List<Entity> entities = new ArrayList<>();
+		long chunkCount = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+		if (chunkCount > MAX_CHECKED_CHUNKS) {
+			// A huge radius, e.g. to get all players, covers far more chunks than are loaded
+			Chunk[] loadedChunks = world.getLoadedChunks();
+			if (loadedChunks.length < chunkCount) {
+				for (Chunk chunk : loadedChunks) {
+					int chunkX = chunk.getX(), chunkZ = chunk.getZ();
+					if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ
+							&& intersects(chunkX, chunkZ, x, z, radiusSquared))
+						addEntities(chunk, types, classes, center, radiusSquared, entities);
+				}
+				return entities.toArray(new Entity[0]);
+			}
+		}
+
+		for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+			for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+				if (intersects(chunkX, chunkZ, x, z, radiusSquared) && world.isChunkLoaded(chunkX, chunkZ))
+					addEntities(world.getChunkAt(chunkX, chunkZ), types, classes, center, radiusSquared, entities);
+			}
+		}
+		return entities.toArray(new Entity[0]);
+	}
+
+	/**
+	 * @return Whether the column of the given chunk intersects the horizontal circle around the given coordinates
+	 */
+	private static boolean intersects(int chunkX, int chunkZ, double x, double z, double radiusSquared) {
+		// horizontal distance from the center to the closest point of the chunk column
+		double dx = Math.max(0, Math.max((chunkX << 4) - x, x - ((chunkX << 4) + 16)));
+		double dz = Math.max(0, Math.max((chunkZ << 4) - z, z - ((chunkZ << 4) + 16)));
+		return dx * dx + dz * dz <= radiusSquared;
+	}
+
+	private static void addEntities(Chunk chunk, EntityData<?>[] types, Class<? extends Entity>[] classes,
+									Location center, double radiusSquared, List<Entity> entities) {
+		for (Entity entity : chunk.getEntities()) {
+			if (!isAnyInstance(classes, entity) || entity.getLocation().distanceSquared(center) > radiusSquared)
+				continue;
+			for (EntityData<?> type : types) {
+				if (type.isInstance(entity)) {
+					entities.add(entity);
+					break;
+				}
+			}
+		}
+	}
+
+	private static boolean isAnyInstance(Class<? extends Entity>[] classes, Entity entity) {
+		for (Class<? extends Entity> entityClass : classes) {
+			if (entityClass.isInstance(entity))
+				return true;
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,81 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.expressions;
+
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.effects.EffFillBlocks;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.BulkBlockChange;
+import ch.njol.util.Kleenean;
+
+@Name("Bulk Block Change Progress")
+@Description({"The progress of the last change started with the <a href='effects.html#EffFillBlocks'>fill blocks</a> effect, " +
+		"as a percentage from 0 to 100. The change is complete once its progress is 100."})
+@Examples({"fill blocks within {_a} and {_b} with stone",
+		"while progress of last bulk block change < 100:",
+		"\tsend action bar \"Filling... %progress of last bulk block change%%%\" to player",
+		"\twait 1 tick"})
+@Since("INSERT VERSION")
+public class ExprBulkBlockChangeProgress extends SimpleExpression<Number> {
+
+	static {
+		Skript.registerExpression(ExprBulkBlockChangeProgress.class, Number.class, ExpressionType.SIMPLE,
+				"[the] progress of [the] last (bulk|mass) block change");
+	}
+
+	@Override
+	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+		return true;
+	}
+
+	@Override
+	@Nullable
+	protected Number[] get(Event e) {
+		BulkBlockChange change = EffFillBlocks.getLastChange();
+		if (change == null)
+			return new Number[0];
+		return new Number[] {change.getProgress() * 100};
+	}
+
+	@Override
+	public boolean isSingle() {
+		return true;
+	}
+
+	@Override
+	public Class<? extends Number> getReturnType() {
+		return Number.class;
+	}
+
+	@Override
+	public String toString(@Nullable Event e, boolean debug) {
+		return "the progress of the last bulk block change";
+	}
+
+}
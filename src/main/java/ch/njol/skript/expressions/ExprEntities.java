@@ -24,6 +24,7 @@ import ch.njol.skript.doc.Examples;
 import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.entity.EntityData;
+import ch.njol.skript.entity.EntityQueries;
 import ch.njol.skript.lang.Expression;
 import ch.njol.skript.lang.ExpressionType;
 import ch.njol.skript.lang.Literal;
@@ -33,7 +34,6 @@ import ch.njol.skript.log.BlockingLogHandler;
 import ch.njol.skript.log.LogHandler;
 import ch.njol.util.Kleenean;
 import ch.njol.util.StringUtils;
-import ch.njol.util.coll.iterator.CheckedIterator;
 import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
@@ -43,11 +43,8 @@ import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 
 import java.lang.reflect.Array;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Iterator;
-import java.util.List;
 
 @Name("Entities")
 @Description("All entities in all worlds, in a specific world, in a chunk or in a radius around a certain location, " +
@@ -133,14 +130,12 @@ public class ExprEntities extends SimpleExpression<Entity> {
 	@SuppressWarnings("null")
 	protected Entity[] get(Event e) {
 		if (isUsingRadius) {
-			Iterator<? extends Entity> iter = iterator(e);
-			if (iter == null || !iter.hasNext())
+			Entity[] entities = getNearbyEntities(e);
+			if (entities == null || entities.length == 0)
 				return null;
-
-			List<Entity> l = new ArrayList<>();
-			while (iter.hasNext())
-				l.add(iter.next());
-			return l.toArray((Entity[]) Array.newInstance(returnType, l.size()));
+			Entity[] typed = (Entity[]) Array.newInstance(returnType, entities.length);
+			System.arraycopy(entities, 0, typed, 0, entities.length);
+			return typed;
 		} else {
 			if (chunks != null) {
 				return EntityData.getAll(types.getArray(e), returnType, chunks.getArray(e));
@@ -155,31 +150,10 @@ public class ExprEntities extends SimpleExpression<Entity> {
 	@SuppressWarnings("null")
 	public Iterator<? extends Entity> iterator(Event e) {
 		if (isUsingRadius) {
-			assert center != null;
-			Location l = center.getSingle(e);
-			if (l == null)
-				return null;
-			assert radius != null;
-			Number n = radius.getSingle(e);
-			if (n == null)
+			Entity[] entities = getNearbyEntities(e);
+			if (entities == null)
 				return null;
-			double d = n.doubleValue();
-
-			if (l.getWorld() == null) // safety
-				return null;
-
-			Collection<Entity> es = l.getWorld().getNearbyEntities(l, d, d, d);
-			double radiusSquared = d * d * Skript.EPSILON_MULT;
-			EntityData<?>[] ts = types.getAll(e);
-			return new CheckedIterator<>(es.iterator(), e1 -> {
-					if (e1 == null || e1.getLocation().distanceSquared(l) > radiusSquared)
-						return false;
-					for (EntityData<?> t : ts) {
-						if (t.isInstance(e1))
-							return true;
-					}
-					return false;
-				});
+			return Arrays.asList(entities).iterator();
 		} else {
 			if (chunks == null || returnType == Player.class)
 				return super.iterator(e);
@@ -188,6 +162,26 @@ public class ExprEntities extends SimpleExpression<Entity> {
 		}
 	}
 
+	@Nullable
+	private Entity[] getNearbyEntities(Event e) {
+		assert center != null;
+		Location l = center.getSingle(e);
+		if (l == null)
+			return null;
+		assert radius != null;
+		Number n = radius.getSingle(e);
+		if (n == null)
+			return null;
+
+		if (l.getWorld() == null) // safety
+			return null;
+
+		EntityData<?>[] ts = types.getAll(e);
+		if (ts.length == 0)
+			return null;
+		return EntityQueries.getNearbyEntities(ts, l, n.doubleValue());
+	}
+
 	@Override
 	public boolean isSingle() {
 		return false;
@@ -32,6 +32,9 @@ import ch.njol.skript.util.LiteralUtils;
 import ch.njol.util.Kleenean;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.comparator.ComparatorInfo;
+import org.skriptlang.skript.lang.comparator.Comparators;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 import java.util.Map;
 import java.util.Map.Entry;
@@ -71,6 +74,8 @@ public class ExprIndices extends SimpleExpression<String> {
 	private boolean sort;
 	private boolean descending;
 
+	private final InlineCache<ComparatorInfo<?, ?>> comparatorCache = new InlineCache<>(Comparators::getComparatorInfo);
+
 	@Override
 	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
 		sort = matchedPattern > 1;
@@ -101,7 +106,7 @@ public class ExprIndices extends SimpleExpression<String> {
 		if (sort) {
 			int direction = descending ? -1 : 1;
 			return variable.entrySet().stream()
-				.sorted((a, b) -> ExprSortedList.compare(a.getValue(), b.getValue()) * direction)
+				.sorted((a, b) -> ExprSortedList.compare(a.getValue(), b.getValue(), comparatorCache) * direction)
 				.map(Entry::getKey)
 				.toArray(String[]::new);
 		}
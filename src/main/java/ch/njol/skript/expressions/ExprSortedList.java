@@ -33,10 +33,13 @@ import ch.njol.util.coll.CollectionUtils;
 import org.bukkit.event.Event;
 import org.eclipse.jdt.annotation.Nullable;
 import org.skriptlang.skript.lang.comparator.Comparator;
+import org.skriptlang.skript.lang.comparator.ComparatorInfo;
 import org.skriptlang.skript.lang.comparator.Comparators;
 import org.skriptlang.skript.lang.comparator.Relation;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 import java.lang.reflect.Array;
+import java.util.Arrays;
 
 @Name("Sorted List")
 @Description("Sorts given list in natural order. All objects in list must be comparable; if they're not, this expression will return nothing.")
@@ -44,6 +47,11 @@ import java.lang.reflect.Array;
 @Since("2.2-dev19")
 public class ExprSortedList extends SimpleExpression<Object> {
 
+	/**
+	 * The size from which homogeneous lists are sorted in parallel.
+	 */
+	private static final int PARALLEL_SORT_THRESHOLD = 1 << 13;
+
 	static {
 		Skript.registerExpression(ExprSortedList.class, Object.class, ExpressionType.COMBINED, "sorted %objects%");
 	}
@@ -51,6 +59,8 @@ public class ExprSortedList extends SimpleExpression<Object> {
 	@SuppressWarnings("NotNullFieldNotInitialized")
 	private Expression<?> list;
 
+	private final InlineCache<ComparatorInfo<?, ?>> comparatorCache = new InlineCache<>(Comparators::getComparatorInfo);
+
 	@SuppressWarnings("unused")
 	public ExprSortedList() {
 	}
@@ -69,19 +79,155 @@ public class ExprSortedList extends SimpleExpression<Object> {
 	@Nullable
 	protected Object[] get(Event event) {
 		try {
-			return list.stream(event)
-					.sorted(ExprSortedList::compare)
-					.toArray();
+			return sort(list.getArray(event), comparatorCache);
 		} catch (IllegalArgumentException | ClassCastException e) {
 			return (Object[]) Array.newInstance(getReturnType(), 0);
 		}
 	}
 
-	@SuppressWarnings("unchecked")
 	public static <A, B> int compare(A a, B b) throws IllegalArgumentException, ClassCastException {
+		return compare(a, b, null);
+	}
+
+	/**
+	 * Sorts the given values like {@link #compare(Object, Object, InlineCache)} would, returning a new array.
+	 * <p>
+	 * If all values are strings or all values are longs, they are sorted by a specialized comparison
+	 * that gives the same order, in parallel for large lists.
+	 *
+	 * @param comparatorCache The inline cache of the sorting call site, used for other values.
+	 * @return The sorted values.
+	 */
+	public static Object[] sort(Object[] values, @Nullable InlineCache<ComparatorInfo<?, ?>> comparatorCache) throws IllegalArgumentException, ClassCastException {
+		Class<?> type = getCommonClass(values);
+		if (type == Long.class) {
+			long[] keys = new long[values.length];
+			for (int i = 0; i < values.length; i++)
+				keys[i] = (Long) values[i];
+			if (keys.length >= PARALLEL_SORT_THRESHOLD) {
+				Arrays.parallelSort(keys);
+			} else {
+				Arrays.sort(keys);
+			}
+			Object[] sorted = new Object[keys.length];
+			for (int i = 0; i < keys.length; i++)
+				sorted[i] = keys[i];
+			return sorted;
+		}
+
+		Object[] sorted = Arrays.copyOf(values, values.length, Object[].class);
+		if (type == String.class) {
+			//noinspection unchecked, rawtypes
+			sort(sorted, (java.util.Comparator) String.CASE_INSENSITIVE_ORDER, true);
+		} else {
+			sort(sorted, (a, b) -> compare(a, b, comparatorCache), false);
+		}
+		return sorted;
+	}
+
+	/**
+	 * Sorts the given values by the given keys, like {@link #compare(Object, Object, InlineCache)} would sort the keys.
+	 * Values with equal keys keep their order.
+	 * <p>
+	 * If all keys are strings or all keys are longs, they are compared by a specialized comparison
+	 * that gives the same order, in parallel for large lists.
+	 *
+	 * @param keys The keys of the values, in the same order as the values.
+	 * @param comparatorCache The inline cache of the sorting call site, used for other keys.
+	 * @return The sorted values.
+	 */
+	public static Object[] sortByKeys(Object[] values, Object[] keys, @Nullable InlineCache<ComparatorInfo<?, ?>> comparatorCache) throws IllegalArgumentException, ClassCastException {
+		assert values.length == keys.length;
+		Class<?> type = getCommonClass(keys);
+		Object[] sorted;
+		if (type == Long.class) {
+			LongKeyed[] keyed = new LongKeyed[values.length];
+			for (int i = 0; i < values.length; i++)
+				keyed[i] = new LongKeyed((Long) keys[i], values[i]);
+			sort(keyed, (a, b) -> Long.compare(a.key, b.key), true);
+			sorted = new Object[keyed.length];
+			for (int i = 0; i < keyed.length; i++)
+				sorted[i] = keyed[i].value;
+		} else {
+			Keyed[] keyed = new Keyed[values.length];
+			for (int i = 0; i < values.length; i++)
+				keyed[i] = new Keyed(keys[i], values[i]);
+			if (type == String.class) {
+				sort(keyed, (a, b) -> String.CASE_INSENSITIVE_ORDER.compare((String) a.key, (String) b.key), true);
+			} else {
+				sort(keyed, (a, b) -> compare(a.key, b.key, comparatorCache), false);
+			}
+			sorted = new Object[keyed.length];
+			for (int i = 0; i < keyed.length; i++)
+				sorted[i] = keyed[i].value;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Sorts the given array stably, in parallel if it's large and the comparator doesn't depend on registered comparators,
+	 * which aren't necessarily thread-safe.
+	 */
+	private static <T> void sort(T[] array, java.util.Comparator<? super T> comparator, boolean parallel) {
+		if (parallel && array.length >= PARALLEL_SORT_THRESHOLD) {
+			Arrays.parallelSort(array, comparator);
+		} else {
+			Arrays.sort(array, comparator);
+		}
+	}
+
+	/**
+	 * @return The class of all given values, or null if they're not all of the same class.
+	 */
+	@Nullable
+	private static Class<?> getCommonClass(Object[] values) {
+		if (values.length == 0)
+			return null;
+		Class<?> type = values[0].getClass();
+		for (Object value : values) {
+			if (value.getClass() != type)
+				return null;
+		}
+		return type;
+	}
+
+	private static final class Keyed {
+
+		private final Object key;
+		private final Object value;
+
+		private Keyed(Object key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+	private static final class LongKeyed {
+
+		private final long key;
+		private final Object value;
+
+		private LongKeyed(long key, Object value) {
+			this.key = key;
+			this.value = value;
+		}
+
+	}
+
+	/**
+	 * Compares two objects like {@link #compare(Object, Object)}, but looks up the comparator of their types in the given cache.
+	 *
+	 * @param comparatorCache The inline cache of the sorting call site, resolving {@link Comparators#getComparatorInfo(Class, Class)}.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <A, B> int compare(A a, B b, @Nullable InlineCache<ComparatorInfo<?, ?>> comparatorCache) throws IllegalArgumentException, ClassCastException {
 		if (a instanceof String && b instanceof String)
 			return Relation.get(((String) a).compareToIgnoreCase((String) b)).getRelation();
-		Comparator<A, B> comparator = Comparators.getComparator((Class<A>) a.getClass(), (Class<B>) b.getClass());
+		ComparatorInfo<A, B> info = comparatorCache != null
+			? (ComparatorInfo<A, B>) comparatorCache.get(a.getClass(), b.getClass())
+			: Comparators.getComparatorInfo((Class<A>) a.getClass(), (Class<B>) b.getClass());
+		Comparator<A, B> comparator = info != null ? info.getComparator() : null;
         if (comparator != null && comparator.supportsOrdering())
 			return comparator.compare(a, b).getRelation();
 		if (!(a instanceof Comparable))
@@ -0,0 +1,92 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.expressions;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.doc.Description;
+import ch.njol.skript.doc.Examples;
+import ch.njol.skript.doc.Name;
+import ch.njol.skript.doc.Since;
+import ch.njol.skript.lang.Expression;
+import ch.njol.skript.lang.ExpressionType;
+import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.Variable;
+import ch.njol.skript.lang.util.SimpleExpression;
+import ch.njol.skript.util.Timespan;
+import ch.njol.skript.variables.Variables;
+import ch.njol.util.Kleenean;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+
+@Name("Variable Time To Live")
+@Description({
+	"The time left until a global variable expires, see the <a href='effects.html#EffVariableExpiry'>variable expiry</a> effect.",
+	"Returns nothing if the variable doesn't expire."
+})
+@Examples({
+	"if {cooldown::%player's uuid%::kit} is set:",
+		"\tsend \"You can use this kit again in %time left until {cooldown::%player's uuid%::kit} expires%\""
+})
+@Since("INSERT VERSION")
+public class ExprVariableTimeToLive extends SimpleExpression<Timespan> {
+
+	static {
+		Skript.registerExpression(ExprVariableTimeToLive.class, Timespan.class, ExpressionType.COMBINED,
+				"[the] time (left|remaining) (until|before) %~objects% expire[s]",
+				"[the] time to live of %~objects%");
+	}
+
+	@SuppressWarnings("NotNullFieldNotInitialized")
+	private Variable<?> variable;
+
+	@Override
+	public boolean init(Expression<?>[] exprs, int matchedPattern, Kleenean isDelayed, ParseResult parseResult) {
+		if (!(exprs[0] instanceof Variable) || ((Variable<?>) exprs[0]).isLocal()) {
+			Skript.error("Only global variables can expire");
+			return false;
+		}
+		variable = (Variable<?>) exprs[0];
+		return true;
+	}
+
+	@Override
+	@Nullable
+	protected Timespan[] get(Event event) {
+		Timespan timeToLive = Variables.getTimeToLive(variable.getName().toString(event));
+		if (timeToLive == null)
+			return new Timespan[0];
+		return new Timespan[] {timeToLive};
+	}
+
+	@Override
+	public boolean isSingle() {
+		return true;
+	}
+
+	@Override
+	public Class<? extends Timespan> getReturnType() {
+		return Timespan.class;
+	}
+
+	@Override
+	public String toString(@Nullable Event event, boolean debug) {
+		return "the time left until " + variable.toString(event, debug) + " expires";
+	}
+
+}
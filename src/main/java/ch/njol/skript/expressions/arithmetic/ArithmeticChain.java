@@ -32,6 +32,7 @@ import org.skriptlang.skript.lang.arithmetic.OperationInfo;
 import org.skriptlang.skript.lang.arithmetic.Operator;
 import org.skriptlang.skript.lang.arithmetic.Arithmetics;
 import org.skriptlang.skript.lang.converter.Converters;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 /**
  * Represents a chain of arithmetic operations between two operands.
@@ -54,7 +55,9 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 	private final Operator operator;
 	private final Class<? extends T> returnType;
 	@Nullable
-	private OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+	private final OperationInfo<? extends L, ? extends R, ? extends T> operationInfo;
+	// used when the operation couldn't be determined while parsing, keyed by the types of the operands
+	private final InlineCache<OperationInfo<?, ?, ?>> operationCache;
 
 	public ArithmeticChain(ArithmeticGettable<L> left, Operator operator, ArithmeticGettable<R> right, @Nullable OperationInfo<L, R, T> operationInfo) {
 		this.left = left;
@@ -62,6 +65,7 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		this.operator = operator;
 		this.operationInfo = operationInfo;
 		this.returnType = operationInfo != null ? operationInfo.getReturnType() : (Class<? extends T>) Object.class;
+		this.operationCache = new InlineCache<>((leftClass, rightClass) -> Arithmetics.lookupOperationInfo(operator, leftClass, rightClass, returnType));
 	}
 
 	@Override
@@ -82,12 +86,13 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		if (leftClass == Object.class && rightClass == Object.class)
 			return null;
 
+		OperationInfo<? extends L, ? extends R, ? extends T> operationInfo = this.operationInfo;
 		if (left == null && leftClass == Object.class) {
 			operationInfo = lookupOperationInfo(rightClass, OperationInfo::getRight);
 		} else if (right == null && rightClass == Object.class) {
 			operationInfo = lookupOperationInfo(leftClass, OperationInfo::getLeft);
 		} else if (operationInfo == null) {
-			operationInfo = Arithmetics.lookupOperationInfo(operator, leftClass, rightClass, returnType);
+			operationInfo = (OperationInfo<? extends L, ? extends R, ? extends T>) operationCache.get(leftClass, rightClass);
 		}
 
 		if (operationInfo == null)
@@ -126,6 +131,26 @@ public class ArithmeticChain<L, R, T> implements ArithmeticGettable<T> {
 		return returnType;
 	}
 
+	ArithmeticGettable<L> getLeft() {
+		return left;
+	}
+
+	ArithmeticGettable<R> getRight() {
+		return right;
+	}
+
+	Operator getOperator() {
+		return operator;
+	}
+
+	/**
+	 * @return The operation determined while parsing, or null if it depends on the types of the operands at runtime.
+	 */
+	@Nullable
+	OperationInfo<? extends L, ? extends R, ? extends T> getOperationInfo() {
+		return operationInfo;
+	}
+
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <L, R, T> ArithmeticGettable<T> parse(List<Object> chain) {
@@ -309,7 +309,14 @@ public class ExprArithmetic<L, R, T> extends SimpleExpression<T> {
 		}
 
 		arithmeticGettable = ArithmeticChain.parse(chain);
-		return arithmeticGettable != null || error(firstClass, secondClass);
+		if (arithmeticGettable == null)
+			return error(firstClass, secondClass);
+
+		// chains of plain number operations can be computed without boxing every intermediate result
+		NumericArithmetic numericArithmetic = NumericArithmetic.of(arithmeticGettable);
+		if (numericArithmetic != null)
+			arithmeticGettable = (ArithmeticGettable<? extends T>) numericArithmetic;
+		return true;
 	}
 
 	@Override
@@ -0,0 +1,239 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.expressions.arithmetic;
+
+import ch.njol.skript.lang.Expression;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+import org.skriptlang.skript.lang.arithmetic.Arithmetics;
+import org.skriptlang.skript.lang.arithmetic.OperationInfo;
+import org.skriptlang.skript.lang.arithmetic.Operator;
+
+/**
+ * Evaluates an arithmetic chain whose operands are all numbers in primitives, boxing only the final result.
+ * <p>
+ * Only chains that use the default number operations of {@link ch.njol.skript.classes.data.DefaultOperations}
+ * are evaluated this way, and the results are the same as those of {@link ArithmeticChain}:
+ * operations on two integers stay integers, everything else is computed in doubles.
+ */
+final class NumericArithmetic implements ArithmeticGettable<Number> {
+
+	/**
+	 * @return A numeric evaluation of the given gettable, or null if it contains operations that aren't the default number operations.
+	 */
+	@Nullable
+	static NumericArithmetic of(ArithmeticGettable<?> gettable) {
+		if (!(gettable instanceof ArithmeticChain))
+			return null;
+		Node root = toNode(gettable);
+		return root != null ? new NumericArithmetic(root, gettable.getReturnType()) : null;
+	}
+
+	@Nullable
+	private static Node toNode(ArithmeticGettable<?> gettable) {
+		if (gettable instanceof ArithmeticExpressionInfo) {
+			Expression<?> expression = ((ArithmeticExpressionInfo<?>) gettable).getExpression();
+			if (!Number.class.isAssignableFrom(expression.getReturnType()))
+				return null;
+			//noinspection unchecked
+			return new Operand((Expression<? extends Number>) expression);
+		}
+		if (!(gettable instanceof ArithmeticChain))
+			return null;
+		ArithmeticChain<?, ?, ?> chain = (ArithmeticChain<?, ?, ?>) gettable;
+		Operator operator = chain.getOperator();
+		OperationInfo<?, ?, ?> info = chain.getOperationInfo();
+		// the operation registered for two numbers can only be the default one, as it is registered first
+		if (info == null || info.getLeft() != Number.class || info.getRight() != Number.class
+				|| info != Arithmetics.getOperationInfo(operator, Number.class, Number.class))
+			return null;
+		Node left = toNode(chain.getLeft());
+		Node right = toNode(chain.getRight());
+		if (left == null || right == null)
+			return null;
+		return new Operation(operator, left, right);
+	}
+
+	private final Node root;
+	private final Class<?> returnType;
+
+	private NumericArithmetic(Node root, Class<?> returnType) {
+		this.root = root;
+		this.returnType = returnType;
+	}
+
+	@Override
+	@Nullable
+	public Number get(Event event) {
+		Value value = new Value();
+		if (!root.evaluate(event, value))
+			return null;
+		return value.integer ? (Number) value.longValue : (Number) value.doubleValue;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public Class<? extends Number> getReturnType() {
+		return (Class<? extends Number>) returnType;
+	}
+
+	/**
+	 * The intermediate result of an evaluation.
+	 * Like {@link ch.njol.skript.util.Utils#isInteger(Number...)}, all numbers but doubles and floats are integers.
+	 */
+	private static final class Value {
+
+		private boolean integer;
+		private long longValue;
+		private double doubleValue;
+
+		private void set(Number number) {
+			integer = !(number instanceof Double || number instanceof Float);
+			if (integer) {
+				longValue = number.longValue();
+				doubleValue = number.doubleValue();
+			} else {
+				doubleValue = number.doubleValue();
+			}
+		}
+
+		private void setLong(long value) {
+			integer = true;
+			longValue = value;
+			doubleValue = value;
+		}
+
+		private void setDouble(double value) {
+			integer = false;
+			doubleValue = value;
+		}
+
+	}
+
+	private static abstract class Node {
+
+		/**
+		 * Evaluates this node into the given value.
+		 * @return Whether there was a result, i.e. the generic evaluation wouldn't have returned null.
+		 */
+		abstract boolean evaluate(Event event, Value value);
+
+	}
+
+	private static final class Operand extends Node {
+
+		private final Expression<? extends Number> expression;
+
+		private Operand(Expression<? extends Number> expression) {
+			this.expression = expression;
+		}
+
+		@Override
+		boolean evaluate(Event event, Value value) {
+			Number number = expression.getSingle(event);
+			if (number == null) {
+				number = Arithmetics.getDefaultValue(expression.getReturnType());
+				if (number == null)
+					return false;
+			}
+			value.set(number);
+			return true;
+		}
+
+	}
+
+	private static final class Operation extends Node {
+
+		private final Operator operator;
+		private final Node left;
+		private final Node right;
+
+		private Operation(Operator operator, Node left, Node right) {
+			this.operator = operator;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		boolean evaluate(Event event, Value value) {
+			if (!evaluateOperand(left, event, value))
+				return false;
+			boolean leftInteger = value.integer;
+			long leftLong = value.longValue;
+			double leftDouble = value.doubleValue;
+
+			if (!evaluateOperand(right, event, value))
+				return false;
+			boolean integer = leftInteger && value.integer;
+			long rightLong = value.longValue;
+			double rightDouble = value.doubleValue;
+
+			switch (operator) {
+				case ADDITION:
+					if (integer)
+						value.setLong(leftLong + rightLong);
+					else
+						value.setDouble(leftDouble + rightDouble);
+					break;
+				case SUBTRACTION:
+					if (integer)
+						value.setLong(leftLong - rightLong);
+					else
+						value.setDouble(leftDouble - rightDouble);
+					break;
+				case MULTIPLICATION:
+					if (integer)
+						value.setLong(leftLong * rightLong);
+					else
+						value.setDouble(leftDouble * rightDouble);
+					break;
+				case DIVISION:
+					value.setDouble(leftDouble / rightDouble);
+					break;
+				case EXPONENTIATION:
+					if (integer && rightLong >= 0)
+						value.setLong((long) Math.pow(leftLong, rightLong));
+					else
+						value.setDouble(Math.pow(leftDouble, rightDouble));
+					break;
+				default:
+					throw new IllegalStateException();
+			}
+			return true;
+		}
+
+		/**
+		 * Evaluates an operand like {@link ArithmeticChain#get(Event)} does:
+		 * a missing result of a nested chain is passed on, a missing value is replaced with the default value of numbers.
+		 */
+		private static boolean evaluateOperand(Node operand, Event event, Value value) {
+			if (operand.evaluate(event, value))
+				return true;
+			if (operand instanceof Operation)
+				return false;
+			Number defaultValue = Arithmetics.getDefaultValue(Number.class);
+			if (defaultValue == null)
+				return false;
+			value.set(defaultValue);
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,319 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.variables.TypeHints;
+import ch.njol.util.Closeable;
+import org.bukkit.event.Event;
+import org.eclipse.jdt.annotation.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which syntax element and pattern each line of the loaded scripts was parsed as,
+ * so that {@link SkriptParser} can try that pattern first when the line is parsed again,
+ * e.g. after a reload or a restart of the server.
+ * <p>
+ * A hint is only a guess: the hinted pattern is parsed as usual, and if it fails the line is parsed
+ * by trying every pattern like without a hint. Hints are keyed by the line and the parser state that
+ * affects which element a line is parsed as, and are discarded as a whole if the registered syntax changed.
+ * <p>
+ * Hints are saved to a file when Skript is disabled. Only hints used since they were loaded are kept,
+ * so hints of lines that were removed from the scripts are dropped eventually.
+ */
+@ApiStatus.Internal
+public final class ParseHints implements Closeable {
+
+	/**
+	 * The maximum amount of hints that are kept, to bound the size of the file
+	 * if lines are parsed that are not part of a script.
+	 */
+	private static final int MAX_HINTS = 100_000;
+
+	@Nullable
+	private static volatile ParseHints instance;
+
+	private final File file;
+	private final String fingerprint;
+
+	/**
+	 * The hints read from the file.
+	 */
+	private final Map<String, Hint> loaded;
+
+	/**
+	 * The hints used or found since loading, which are the ones that will be saved.
+	 */
+	private final Map<String, Hint> used = new ConcurrentHashMap<>();
+
+	private ParseHints(File file, String fingerprint, Map<String, Hint> loaded) {
+		this.file = file;
+		this.fingerprint = fingerprint;
+		this.loaded = loaded;
+	}
+
+	/**
+	 * @return The hints to use, or null if no hints have been loaded.
+	 */
+	@Nullable
+	static ParseHints get() {
+		return instance;
+	}
+
+	/**
+	 * Loads the hints from the given file and starts using them. The hints are saved to the same file when Skript is disabled.
+	 *
+	 * @param file The file to load the hints from. If it doesn't exist, no hints are loaded.
+	 * @param fingerprint The fingerprint of the registered syntax, as returned by {@link #fingerprint(Iterator)}.
+	 *                    If it doesn't match the fingerprint the file was saved with, the hints in the file are discarded.
+	 */
+	public static void load(File file, String fingerprint) {
+		Map<String, Hint> loaded = new HashMap<>();
+		if (file.exists()) {
+			try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+				if (fingerprint.equals(reader.readLine())) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						String[] parts = line.split("\t", -1);
+						if (parts.length != 3)
+							continue;
+						try {
+							loaded.put(unescape(parts[0]), new Hint(unescape(parts[1]), Integer.parseInt(parts[2])));
+						} catch (NumberFormatException ignored) {}
+					}
+				}
+			} catch (IOException e) {
+				Skript.warning("Could not read the parse hints from " + file.getName() + ": " + e.getLocalizedMessage());
+				loaded.clear();
+			}
+		}
+		ParseHints hints = new ParseHints(file, fingerprint, loaded);
+		instance = hints;
+		Skript.closeOnDisable(hints);
+	}
+
+	/**
+	 * Computes a fingerprint of the given syntax elements, which changes whenever an element or any of its patterns changes.
+	 *
+	 * @param infos The registered syntax elements.
+	 */
+	public static String fingerprint(Iterator<? extends SyntaxElementInfo<?>> infos) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(Skript.getVersion().toString().getBytes(StandardCharsets.UTF_8));
+		while (infos.hasNext()) {
+			SyntaxElementInfo<?> info = infos.next();
+			digest.update((byte) 0);
+			digest.update(info.getElementClass().getName().getBytes(StandardCharsets.UTF_8));
+			for (String pattern : info.getPatterns()) {
+				digest.update((byte) 1);
+				digest.update(pattern.getBytes(StandardCharsets.UTF_8));
+			}
+		}
+		StringBuilder fingerprint = new StringBuilder();
+		for (byte b : digest.digest())
+			fingerprint.append(String.format("%02x", b));
+		return fingerprint.toString();
+	}
+
+	/**
+	 * Creates the key of a line, which includes the parser state that affects which syntax element the line is parsed as.
+	 *
+	 * @param expr The line.
+	 * @param flags The flags of the parser.
+	 * @param context The context of the parser.
+	 * @param firstInfo The first syntax element that is tried, which identifies the kind of element being parsed.
+	 */
+	String getKey(String expr, int flags, ParseContext context, SyntaxElementInfo<?> firstInfo) {
+		ParserInstance parser = ParserInstance.get();
+		StringBuilder key = new StringBuilder(expr).append('\0').append(flags)
+			.append('\0').append(context)
+			.append('\0').append(parser.getCurrentEventName())
+			.append('\0').append(parser.getHasDelayBefore())
+			.append('\0').append(firstInfo.getElementClass().getName());
+
+		// Sections may change the current events without changing the event name
+		key.append('\0');
+		Class<? extends Event>[] events = parser.getCurrentEvents();
+		if (events != null) {
+			for (Class<? extends Event> event : events)
+				key.append(event.getName()).append(',');
+		}
+
+		key.append('\0');
+		for (TriggerSection section : parser.getCurrentSections())
+			key.append(section.getClass().getName()).append(',');
+
+		// Type hints of local variables affect which expressions their uses can be converted to
+		if (expr.contains("{_")) {
+			key.append('\0');
+			new TreeMap<>(TypeHints.getAll()).forEach((variable, type) -> key.append(variable).append('=').append(type.getName()).append(','));
+		}
+		return key.toString();
+	}
+
+	/**
+	 * @return The hint for the given key, or null if there is none.
+	 */
+	@Nullable
+	Hint getHint(String key) {
+		Hint hint = used.get(key);
+		return hint != null ? hint : loaded.get(key);
+	}
+
+	/**
+	 * Records that the line with the given key was parsed as the given hint.
+	 */
+	void use(String key, Hint hint) {
+		if (used.size() < MAX_HINTS || used.containsKey(key))
+			used.put(key, hint);
+	}
+
+	/**
+	 * Saves the used hints to the file they were loaded from.
+	 */
+	@Override
+	public void close() {
+		if (instance == this)
+			instance = null;
+		Path path = file.toPath();
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try {
+			try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+				writer.write(fingerprint);
+				writer.newLine();
+				for (Map.Entry<String, Hint> entry : used.entrySet()) {
+					Hint hint = entry.getValue();
+					writer.write(escape(entry.getKey()) + '\t' + escape(hint.className) + '\t' + hint.patternIndex);
+					writer.newLine();
+				}
+			}
+			Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+		} catch (IOException e) {
+			Skript.warning("Could not save the parse hints to " + file.getName() + ": " + e.getLocalizedMessage());
+		}
+	}
+
+	private static String escape(String s) {
+		if (s.indexOf('\\') == -1 && s.indexOf('\t') == -1 && s.indexOf('\n') == -1 && s.indexOf('\r') == -1)
+			return s;
+		StringBuilder b = new StringBuilder(s.length() + 8);
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			switch (c) {
+				case '\\':
+					b.append("\\\\");
+					break;
+				case '\t':
+					b.append("\\t");
+					break;
+				case '\n':
+					b.append("\\n");
+					break;
+				case '\r':
+					b.append("\\r");
+					break;
+				default:
+					b.append(c);
+			}
+		}
+		return b.toString();
+	}
+
+	private static String unescape(String s) {
+		if (s.indexOf('\\') == -1)
+			return s;
+		StringBuilder b = new StringBuilder(s.length());
+		for (int i = 0; i < s.length(); i++) {
+			char c = s.charAt(i);
+			if (c == '\\' && i + 1 < s.length()) {
+				char next = s.charAt(++i);
+				switch (next) {
+					case 't':
+						b.append('\t');
+						break;
+					case 'n':
+						b.append('\n');
+						break;
+					case 'r':
+						b.append('\r');
+						break;
+					default:
+						b.append(next);
+				}
+			} else {
+				b.append(c);
+			}
+		}
+		return b.toString();
+	}
+
+	/**
+	 * A syntax element and the index of its pattern that a line was parsed as.
+	 */
+	static final class Hint {
+
+		private final String className;
+		private final int patternIndex;
+
+		private Hint(String className, int patternIndex) {
+			this.className = className;
+			this.patternIndex = patternIndex;
+		}
+
+		Hint(SyntaxElementInfo<?> info, int patternIndex) {
+			this(info.getElementClass().getName(), patternIndex);
+		}
+
+		/**
+		 * @return Whether this hint refers to the given syntax element and the element has the hinted pattern.
+		 */
+		boolean matches(SyntaxElementInfo<?> info) {
+			return patternIndex >= 0 && patternIndex < info.patterns.length
+				&& info.getElementClass().getName().equals(className);
+		}
+
+		int getPatternIndex() {
+			return patternIndex;
+		}
+
+	}
+
+}
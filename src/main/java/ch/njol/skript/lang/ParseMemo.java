@@ -0,0 +1,191 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.classes.ClassInfo;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.lang.SkriptParser.ExprInfo;
+import ch.njol.skript.lang.parser.ParserInstance;
+import ch.njol.skript.log.LogEntry;
+import ch.njol.skript.log.SkriptLogger;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers which sub-expressions of the line currently being parsed failed to parse,
+ * so that they are not parsed again when other patterns or list splits try the same part of the line.
+ * <p>
+ * Only failures are remembered, together with the error they printed.
+ * Parsed expressions are not reused, as they may be modified after parsing
+ * (e.g. by {@link Expression#setTime(int)} or the syntax element using them).
+ * <p>
+ * A memo is started by {@link SkriptParser} when it starts parsing syntax elements and is discarded
+ * once it is done, so it is only ever used for a single line. Lines parsed while another line is being parsed,
+ * e.g. the contents of a section, get their own memo.
+ */
+final class ParseMemo {
+
+	private static final ThreadLocal<ParseMemo> CURRENT = new ThreadLocal<>();
+
+	@Nullable
+	private final ParseMemo parent;
+
+	@Nullable
+	private final Node node;
+
+	private int depth;
+
+	/**
+	 * The failed sub-expressions, with the error they printed, if any.
+	 */
+	private final Map<Key, Failure> failures = new HashMap<>();
+
+	private ParseMemo(@Nullable ParseMemo parent, @Nullable Node node) {
+		this.parent = parent;
+		this.node = node;
+	}
+
+	/**
+	 * Starts using a memo for the current thread, which is a new memo if a new line is being parsed.
+	 * Must be followed by {@link #exit()}.
+	 *
+	 * @return Whether a new line is being parsed, i.e. whether this is not a part of a line being parsed.
+	 */
+	static boolean enter() {
+		Node node = ParserInstance.get().getNode();
+		ParseMemo memo = CURRENT.get();
+		boolean newLine = memo == null || memo.node != node;
+		if (newLine) {
+			memo = new ParseMemo(memo, node);
+			CURRENT.set(memo);
+		}
+		memo.depth++;
+		return newLine;
+	}
+
+	/**
+	 * Stops using the current memo, discarding it if the line it was started for is done.
+	 */
+	static void exit() {
+		ParseMemo memo = CURRENT.get();
+		assert memo != null;
+		if (--memo.depth == 0) {
+			if (memo.parent == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(memo.parent);
+			}
+		}
+	}
+
+	/**
+	 * @return The memo of the line currently being parsed, or null if no syntax elements are being parsed.
+	 */
+	@Nullable
+	static ParseMemo get() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Prints the error of a remembered failure again, if the given sub-expression failed before.
+	 *
+	 * @return Whether the sub-expression is known to fail.
+	 */
+	boolean replayFailure(Key key) {
+		Failure failure = failures.get(key);
+		if (failure == null)
+			return false;
+		LogEntry error = failure.error;
+		if (error != null)
+			SkriptLogger.log(new LogEntry(error.getLevel(), error.getQuality(), error.getMessage(), error.node));
+		return true;
+	}
+
+	/**
+	 * Remembers that a sub-expression failed to parse.
+	 *
+	 * @param error The error printed by the failed attempt, if any.
+	 */
+	void addFailure(Key key, @Nullable LogEntry error) {
+		failures.put(key, new Failure(error));
+	}
+
+	private static final class Failure {
+
+		@Nullable
+		private final LogEntry error;
+
+		private Failure(@Nullable LogEntry error) {
+			this.error = error;
+		}
+
+	}
+
+	/**
+	 * Identifies an attempt to parse a sub-expression as one of the types of an {@link ExprInfo}.
+	 * Only the parts of the {@link ExprInfo} that affect {@link SkriptParser#parseExpression(ExprInfo)} are compared.
+	 */
+	static final class Key {
+
+		private final String expr;
+		private final int flags;
+		private final ParseContext context;
+		private final ClassInfo<?>[] classes;
+		private final boolean[] isPlural;
+		private final int flagMask;
+		private final int hashCode;
+
+		Key(String expr, int flags, ParseContext context, ExprInfo exprInfo) {
+			this.expr = expr;
+			this.flags = flags;
+			this.context = context;
+			this.classes = exprInfo.classes;
+			this.isPlural = exprInfo.isPlural;
+			this.flagMask = exprInfo.flagMask;
+			this.hashCode = Objects.hash(expr, flags, context, Arrays.hashCode(classes), Arrays.hashCode(isPlural), flagMask);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return hashCode == other.hashCode
+				&& flags == other.flags
+				&& flagMask == other.flagMask
+				&& context == other.context
+				&& expr.equals(other.expr)
+				&& Arrays.equals(classes, other.classes)
+				&& Arrays.equals(isPlural, other.isPlural);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+	}
+
+}
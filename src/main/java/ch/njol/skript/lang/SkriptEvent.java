@@ -165,6 +165,28 @@ public abstract class SkriptEvent extends Structure {
 		return true;
 	}
 
+	/**
+	 * Events can be loaded in parallel, as loading them only parses their trigger.
+	 * This is not the case for events that override {@link #load()} or {@link #shouldLoadEvent()},
+	 * unless they also override this method.
+	 */
+	@Override
+	public boolean canLoadInParallel() {
+		return PARALLEL_LOADABLE.get(getClass());
+	}
+
+	private static final ClassValue<Boolean> PARALLEL_LOADABLE = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> type) {
+			try {
+				return type.getMethod("load").getDeclaringClass() == SkriptEvent.class
+					&& type.getMethod("shouldLoadEvent").getDeclaringClass() == SkriptEvent.class;
+			} catch (NoSuchMethodException e) {
+				return false;
+			}
+		}
+	};
+
 	/**
 	 * This method handles the unregistration of this event with Skript and Bukkit.
 	 * Only override this method if you know what you are doing!
@@ -30,6 +30,7 @@ import ch.njol.skript.expressions.ExprParse;
 import ch.njol.skript.lang.function.ExprFunctionCall;
 import ch.njol.skript.lang.function.FunctionReference;
 import ch.njol.skript.lang.function.Functions;
+import ch.njol.skript.lang.parser.ParseProfiler;
 import ch.njol.skript.lang.parser.ParserInstance;
 import ch.njol.skript.lang.util.SimpleLiteral;
 import ch.njol.skript.localization.Language;
@@ -56,6 +57,7 @@ import org.skriptlang.skript.lang.script.Script;
 import org.skriptlang.skript.lang.script.ScriptWarning;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.LinkedList;
@@ -219,60 +221,121 @@ public class SkriptParser {
 	@Nullable
 	private <T extends SyntaxElement> T parse(Iterator<? extends SyntaxElementInfo<? extends T>> source) {
 		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		boolean newLine = ParseMemo.enter();
 		try {
-			while (source.hasNext()) {
-				SyntaxElementInfo<? extends T> info = source.next();
-				patternsLoop: for (int patternIndex = 0; patternIndex < info.patterns.length; patternIndex++) {
-					log.clear();
-					try {
-						String pattern = info.patterns[patternIndex];
-						assert pattern != null;
-						ParseResult parseResult;
-						try {
-							parseResult = parse_i(pattern);
-						} catch (MalformedPatternException e) {
-							String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
-							try {
-								JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
-								message += " (provided by " + providingPlugin.getName() + ")";
-							} catch (IllegalArgumentException | IllegalStateException ignored) {}
-							throw new RuntimeException(message, e);
-
-						}
-						if (parseResult != null) {
-							assert parseResult.source != null; // parse results from parse_i have a source
-							List<TypePatternElement> types = null;
-							for (int i = 0; i < parseResult.exprs.length; i++) {
-								if (parseResult.exprs[i] == null) {
-									if (types == null)
-										types = parseResult.source.getElements(TypePatternElement.class);;
-									ExprInfo exprInfo = types.get(i).getExprInfo();
-									if (!exprInfo.isOptional) {
-										DefaultExpression<?> expr = getDefaultExpression(exprInfo, info.patterns[patternIndex]);
-										if (!expr.init())
-											continue patternsLoop;
-										parseResult.exprs[i] = expr;
-									}
-								}
-							}
-							T element = info.getElementClass().newInstance();
-							if (element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult)) {
+			// Try the element this line was parsed as last time first, if a script is being loaded
+			ParseHints hints = newLine && getParser().isActive() ? ParseHints.get() : null;
+			String hintKey = null;
+			if (hints != null) {
+				List<SyntaxElementInfo<? extends T>> infos = new ArrayList<>();
+				source.forEachRemaining(infos::add);
+				source = infos.iterator();
+				if (!infos.isEmpty()) {
+					hintKey = hints.getKey(expr, flags, context, infos.get(0));
+					ParseHints.Hint hint = hints.getHint(hintKey);
+					if (hint != null) {
+						for (SyntaxElementInfo<? extends T> info : infos) {
+							if (!hint.matches(info))
+								continue;
+							log.clear();
+							T element = parse(info, hint.getPatternIndex());
+							if (element != null) {
+								hints.use(hintKey, hint);
 								log.printLog();
 								return element;
 							}
+							break;
 						}
-					} catch (InstantiationException | IllegalAccessException e) {
-						assert false;
+					}
+				}
+			}
+
+			BitSet candidates = SyntaxIndex.getCandidates(expr);
+			while (source.hasNext()) {
+				SyntaxElementInfo<? extends T> info = source.next();
+				for (int patternIndex = 0; patternIndex < info.patterns.length; patternIndex++) {
+					if (!SyntaxIndex.isCandidate(candidates, info, patternIndex))
+						continue;
+					log.clear();
+					T element = parse(info, patternIndex);
+					if (element != null) {
+						if (hintKey != null)
+							hints.use(hintKey, new ParseHints.Hint(info, patternIndex));
+						log.printLog();
+						return element;
 					}
 				}
 			}
 			log.printError();
 			return null;
 		} finally {
+			ParseMemo.exit();
 			log.stop();
 		}
 	}
 
+	/**
+	 * Attempts to parse this parser's expression as the given pattern of a syntax element.
+	 * Logs into the current log handler.
+	 *
+	 * @return The initialised syntax element, or null if the pattern didn't match or the element failed to initialise.
+	 */
+	@Nullable
+	private <T extends SyntaxElement> T parse(SyntaxElementInfo<? extends T> info, int patternIndex) {
+		if (!ParseProfiler.enterAttempt())
+			return parse_i(info, patternIndex);
+		T element = null;
+		try {
+			element = parse_i(info, patternIndex);
+			return element;
+		} finally {
+			ParseProfiler.exitAttempt(info, element != null);
+		}
+	}
+
+	@Nullable
+	private <T extends SyntaxElement> T parse_i(SyntaxElementInfo<? extends T> info, int patternIndex) {
+		try {
+			String pattern = info.patterns[patternIndex];
+			assert pattern != null;
+			ParseResult parseResult;
+			try {
+				parseResult = parse_i(pattern);
+			} catch (MalformedPatternException e) {
+				String message = "pattern compiling exception, element class: " + info.getElementClass().getName();
+				try {
+					JavaPlugin providingPlugin = JavaPlugin.getProvidingPlugin(info.getElementClass());
+					message += " (provided by " + providingPlugin.getName() + ")";
+				} catch (IllegalArgumentException | IllegalStateException ignored) {}
+				throw new RuntimeException(message, e);
+
+			}
+			if (parseResult != null) {
+				assert parseResult.source != null; // parse results from parse_i have a source
+				List<TypePatternElement> types = null;
+				for (int i = 0; i < parseResult.exprs.length; i++) {
+					if (parseResult.exprs[i] == null) {
+						if (types == null)
+							types = parseResult.source.getElements(TypePatternElement.class);;
+						ExprInfo exprInfo = types.get(i).getExprInfo();
+						if (!exprInfo.isOptional) {
+							DefaultExpression<?> expr = getDefaultExpression(exprInfo, info.patterns[patternIndex]);
+							if (!expr.init())
+								return null;
+							parseResult.exprs[i] = expr;
+						}
+					}
+				}
+				T element = info.getElementClass().newInstance();
+				if (element.init(parseResult.exprs, patternIndex, getParser().getHasDelayBefore(), parseResult))
+					return element;
+			}
+		} catch (InstantiationException | IllegalAccessException e) {
+			assert false;
+		}
+		return null;
+	}
+
 	private static <T extends SyntaxElement> @NotNull DefaultExpression<?> getDefaultExpression(ExprInfo exprInfo, String pattern) {
 		DefaultExpression<?> expr = exprInfo.classes[0].getDefaultExpression();
 		if (expr == null)
@@ -774,6 +837,31 @@ public class SkriptParser {
 		if (expr.length() == 0)
 			return null;
 
+		ParseMemo memo = ParseMemo.get();
+		if (memo == null)
+			return parseExpression_i(exprInfo);
+
+		// the same part of a line is often tried with the same types by several patterns
+		ParseMemo.Key key = new ParseMemo.Key(expr, flags, context, exprInfo);
+		if (memo.replayFailure(key))
+			return null;
+		ParseLogHandler log = SkriptLogger.startParseLogHandler();
+		try {
+			Expression<?> parsedExpression = parseExpression_i(exprInfo);
+			if (parsedExpression != null) {
+				log.printLog();
+				return parsedExpression;
+			}
+			memo.addFailure(key, log.getError());
+			log.printError();
+			return null;
+		} finally {
+			log.stop();
+		}
+	}
+
+	@Nullable
+	private Expression<?> parseExpression_i(ExprInfo exprInfo) {
 		boolean isObject = exprInfo.classes.length == 1 && exprInfo.classes[0].getC() == Object.class;
 		ParseLogHandler log = SkriptLogger.startParseLogHandler();
 		try {
@@ -33,6 +33,11 @@ public class SyntaxElementInfo<E extends SyntaxElement> {
 	public final Class<E> elementClass;
 	public final String[] patterns;
 	public final String originClassPath;
+
+	/**
+	 * The id of the first pattern of this element in the {@link SyntaxIndex}, or -1 if it isn't indexed.
+	 */
+	int indexOffset = -1;
   
 	public SyntaxElementInfo(String[] patterns, Class<E> elementClass, String originClassPath) throws IllegalArgumentException {
 		if (Modifier.isAbstract(elementClass.getModifiers()))
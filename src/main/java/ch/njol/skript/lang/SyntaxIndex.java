@@ -0,0 +1,140 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang;
+
+import ch.njol.skript.patterns.MalformedPatternException;
+import ch.njol.skript.patterns.PatternCompiler;
+import ch.njol.skript.patterns.SkriptPattern;
+import org.eclipse.jdt.annotation.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An inverted index of the patterns of all syntax elements registered during plugin initialization,
+ * used by {@link SkriptParser} to skip patterns that cannot match an expression without attempting to match them.
+ * <p>
+ * Each indexed pattern gets an id, consecutive for the patterns of an element and in registration order.
+ * Patterns are indexed by the first characters of the literals they must start with, if any.
+ * Patterns without such a literal are candidates for every expression, as are patterns of elements registered
+ * after the index was built.
+ */
+@ApiStatus.Internal
+public final class SyntaxIndex {
+
+	/**
+	 * The maximum amount of characters of a starting literal used as key.
+	 */
+	private static final int PREFIX_LENGTH = 3;
+
+	@Nullable
+	private static volatile SyntaxIndex instance;
+
+	/**
+	 * The patterns that can match expressions with any start.
+	 */
+	private final BitSet unprefixed = new BitSet();
+
+	/**
+	 * The patterns by the first characters of their starting literals.
+	 */
+	private final Map<String, BitSet> prefixed = new HashMap<>();
+
+	private SyntaxIndex() {}
+
+	/**
+	 * Builds the index for the given syntax elements, replacing any previous index.
+	 * All given elements are indexed anew, as the ids of their patterns may change.
+	 * <p>
+	 * Must not be called while parsing, as elements are assigned their new ids before the new index is in place.
+	 *
+	 * @param infos The syntax elements to index, in registration order.
+	 */
+	public static void build(Iterator<? extends SyntaxElementInfo<?>> infos) {
+		SyntaxIndex index = new SyntaxIndex();
+		int nextId = 0;
+		while (infos.hasNext()) {
+			SyntaxElementInfo<?> info = infos.next();
+			info.indexOffset = -1;
+			String[] patterns = info.patterns;
+			SkriptPattern[] compiled = new SkriptPattern[patterns.length];
+			try {
+				for (int i = 0; i < patterns.length; i++)
+					compiled[i] = PatternCompiler.compile(patterns[i]);
+			} catch (MalformedPatternException e) {
+				continue; // not indexed, the error will be reported when the pattern is used
+			}
+			for (int i = 0; i < compiled.length; i++)
+				index.add(nextId + i, compiled[i].getStartingLiterals());
+			info.indexOffset = nextId;
+			nextId += compiled.length;
+		}
+		instance = index;
+	}
+
+	private void add(int id, @Nullable Set<String> startingLiterals) {
+		if (startingLiterals == null) {
+			unprefixed.set(id);
+			return;
+		}
+		for (String literal : startingLiterals) {
+			String prefix = literal.length() > PREFIX_LENGTH ? literal.substring(0, PREFIX_LENGTH) : literal;
+			prefixed.computeIfAbsent(prefix, key -> new BitSet()).set(id);
+		}
+	}
+
+	/**
+	 * Determines the patterns that may match the given expression.
+	 *
+	 * @param expr The expression to be parsed.
+	 * @return The ids of all indexed patterns that may match the expression,
+	 * 	or null if no index has been built.
+	 * @see #isCandidate(BitSet, SyntaxElementInfo, int)
+	 */
+	@Nullable
+	static BitSet getCandidates(String expr) {
+		SyntaxIndex index = instance;
+		if (index == null)
+			return null;
+		String lowerExpr = expr.toLowerCase(Locale.ENGLISH);
+		BitSet candidates = (BitSet) index.unprefixed.clone();
+		for (int length = 1; length <= PREFIX_LENGTH && length <= lowerExpr.length(); length++) {
+			BitSet patterns = index.prefixed.get(lowerExpr.substring(0, length));
+			if (patterns != null)
+				candidates.or(patterns);
+		}
+		return candidates;
+	}
+
+	/**
+	 * @param candidates The candidates of an expression, as returned by {@link #getCandidates(String)}.
+	 * @param info The syntax element.
+	 * @param patternIndex The index of the pattern of the syntax element.
+	 * @return Whether the pattern may match the expression, i.e. whether it is worth attempting to match it.
+	 */
+	static boolean isCandidate(@Nullable BitSet candidates, SyntaxElementInfo<?> info, int patternIndex) {
+		return candidates == null || info.indexOffset < 0 || candidates.get(info.indexOffset + patternIndex);
+	}
+
+}
@@ -91,6 +91,13 @@ public class Variable<T> implements Expression<T> {
 	@Nullable
 	private final Variable<?> source;
 
+	/**
+	 * The default variables of the script this variable was created in,
+	 * or {@code null} if none of them can provide a default value for this variable.
+	 */
+	@Nullable
+	private final DefaultVariables defaultVariables;
+
 	@SuppressWarnings("unchecked")
 	private Variable(VariableString name, Class<? extends T>[] types, boolean local, boolean list, @Nullable Variable<?> source) {
 		assert types.length > 0;
@@ -110,6 +117,11 @@ public class Variable<T> implements Expression<T> {
 		this.superType = (Class<T>) Utils.getSuperType(types);
 
 		this.source = source;
+
+		DefaultVariables defaultVariables = script == null ? null : script.getData(DefaultVariables.class);
+		if (defaultVariables != null && (local || !name.hasDefaultVariable(defaultVariables)))
+			defaultVariables = null;
+		this.defaultVariables = defaultVariables;
 	}
 
 	/**
@@ -303,31 +315,28 @@ public class Variable<T> implements Expression<T> {
 	 */
 	@Nullable
 	public Object getRaw(Event event) {
-		DefaultVariables data = script == null ? null : script.getData(DefaultVariables.class);
-		if (data != null)
-			data.enterScope();
-		try {
-			String name = this.name.toString(event);
-
-			// prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
-			if (name.endsWith(Variable.SEPARATOR + "*") != list)
-				return null;
-			Object value = !list ? convertIfOldPlayer(name, event, Variables.getVariable(name, event, local)) : Variables.getVariable(name, event, local);
-			if (value != null)
-				return value;
+		String name = this.name.toString(event);
 
-			// Check for default variables if value is still null.
-			if (data == null || !data.hasDefaultVariables())
-				return null;
+		// prevents e.g. {%expr%} where "%expr%" ends with "::*" from returning a Map
+		if (name.endsWith(Variable.SEPARATOR + "*") != list)
+			return null;
+		Object value = !list ? convertIfOldPlayer(name, event, Variables.getVariable(name, event, local)) : Variables.getVariable(name, event, local);
+		if (value != null)
+			return value;
 
-			for (String typeHint : this.name.getDefaultVariableNames(name, event)) {
-				value = Variables.getVariable(typeHint, event, false);
-				if (value != null)
-					return value;
-			}
-		} finally {
-			if (data != null)
-				data.exitScope();
+		// Check for default variables if value is still null.
+		if (defaultVariables == null)
+			return null;
+
+		// The types of the values in the name are only needed for default variables,
+		//  so they are tracked by evaluating the name again instead of on every read
+		Class<?>[] types = new Class<?>[this.name.getExpressionCount()];
+		this.name.toString(event, types);
+
+		for (String typeHint : this.name.getDefaultVariableNames(types)) {
+			value = Variables.getVariable(typeHint, event, false);
+			if (value != null)
+				return value;
 		}
 		return null;
 	}
@@ -35,8 +35,10 @@ import ch.njol.skript.util.StringMode;
 import ch.njol.skript.util.Utils;
 import ch.njol.skript.util.chat.ChatMessages;
 import ch.njol.skript.util.chat.MessageComponent;
+import ch.njol.skript.variables.Variables;
 import ch.njol.util.Checker;
 import ch.njol.util.Kleenean;
+import ch.njol.util.NonNullPair;
 import ch.njol.util.StringUtils;
 import ch.njol.util.coll.CollectionUtils;
 import ch.njol.util.coll.iterator.SingleItemIterator;
@@ -51,6 +53,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -69,6 +72,11 @@ public class VariableString implements Expression<String> {
 	private Object @Nullable [] stringsUnformatted;
 	private final boolean isSimple;
 
+	/**
+	 * The amount of expressions in {@link #strings}.
+	 */
+	private final int expressionCount;
+
 	@Nullable
 	private final String simple, simpleUnformatted;
 	private final StringMode mode;
@@ -79,6 +87,23 @@ public class VariableString implements Expression<String> {
 	 */
 	private final MessageComponent[] components;
 
+	/**
+	 * The message components of a simple string, parsed when they are first needed.
+	 */
+	private volatile MessageComponent @Nullable [] simpleComponents;
+
+	/**
+	 * The last message that was built from this string, to be reused if the expressions render the same text again.
+	 */
+	@Nullable
+	private volatile RenderedMessage lastMessage;
+
+	/**
+	 * The last message that was built from this string with formatting parsed everywhere.
+	 */
+	@Nullable
+	private volatile RenderedMessage lastUnsafeMessage;
+
 	/**
 	 * Creates a new VariableString which does not contain variables.
 	 *
@@ -91,6 +116,7 @@ public class VariableString implements Expression<String> {
 
 		this.original = simple;
 		this.strings = null;
+		this.expressionCount = 0;
 		this.mode = StringMode.MESSAGE;
 
 		ParserInstance parser = getParser();
@@ -116,6 +142,7 @@ public class VariableString implements Expression<String> {
 
 		// Construct unformatted string and components
 		List<MessageComponent> components = new ArrayList<>(strings.length);
+		int expressionCount = 0;
 		for (int i = 0; i < strings.length; i++) {
 			Object object = strings[i];
 			if (object instanceof String) {
@@ -124,12 +151,15 @@ public class VariableString implements Expression<String> {
 			} else {
 				this.strings[i] = object;
 				components.add(null); // Not known parse-time
+				if (object instanceof Expression<?>)
+					expressionCount++;
 			}
 
 			// For unformatted string, don't format stuff
 			this.stringsUnformatted[i] = object;
 		}
 		this.components = components.toArray(new MessageComponent[0]);
+		this.expressionCount = expressionCount;
 
 		this.mode = mode;
 
@@ -408,15 +438,26 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponents(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
-			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
-		}
+		if (isSimple) // Trusted, constant string in a script
+			return copyComponents(getSimpleComponents());
 
-		// Parse formatting
+		// Render the expressions, the literal parts have been parsed already
 		Object[] strings = this.stringsUnformatted;
 		assert strings != null;
+		String[] texts = new String[getExpressionCount()];
+		int textIndex = 0;
+		for (Object string : strings) {
+			if (string instanceof Expression<?>)
+				texts[textIndex++] = Classes.toString(((Expression<?>) string).getArray(event), true, mode);
+		}
+
+		RenderedMessage lastMessage = this.lastMessage;
+		if (lastMessage != null && Arrays.equals(lastMessage.texts, texts))
+			return copyComponents(lastMessage.components);
+
+		// Parse formatting
 		List<MessageComponent> message = new ArrayList<>(components.length); // At least this much space
+		textIndex = 0;
 		int stringPart = -1;
 		MessageComponent previous = null;
 		for (MessageComponent component : components) {
@@ -427,18 +468,14 @@ public class VariableString implements Expression<String> {
 					stringPart++;
 				}
 				Object string = strings[stringPart];
+				String text = texts[textIndex++];
 				previous = null;
 
-				// Convert it to plain text
-				String text = null;
 				if (string instanceof ExprColoured && ((ExprColoured) string).isUnsafeFormat()) { // Special case: user wants to process formatting
-					String unformatted = Classes.toString(((ExprColoured) string).getArray(event), true, mode);
-					if (unformatted != null) {
-						message.addAll(ChatMessages.parse(unformatted));
+					if (text != null) {
+						message.addAll(ChatMessages.parse(text));
 					}
 					continue;
-				} else if (string instanceof Expression<?>) {
-					text = Classes.toString(((Expression<?>) string).getArray(event), true, mode);
 				}
 
 				assert text != null;
@@ -463,7 +500,9 @@ public class VariableString implements Expression<String> {
 			}
 		}
 
-		return message;
+		MessageComponent[] rendered = message.toArray(new MessageComponent[0]);
+		this.lastMessage = new RenderedMessage(texts, rendered);
+		return copyComponents(rendered);
 	}
 
 	/**
@@ -473,12 +512,54 @@ public class VariableString implements Expression<String> {
 	 * @return Message components.
 	 */
 	public List<MessageComponent> getMessageComponentsUnsafe(Event event) {
-		if (isSimple) { // Trusted, constant string in a script
+		if (isSimple) // Trusted, constant string in a script
+			return copyComponents(getSimpleComponents());
+
+		String[] texts = new String[] {toUnformattedString(event)};
+		RenderedMessage lastMessage = this.lastUnsafeMessage;
+		if (lastMessage != null && Arrays.equals(lastMessage.texts, texts))
+			return copyComponents(lastMessage.components);
+
+		MessageComponent[] rendered = ChatMessages.parseToArray(texts[0]);
+		this.lastUnsafeMessage = new RenderedMessage(texts, rendered);
+		return copyComponents(rendered);
+	}
+
+	/**
+	 * @return The components of this simple string, which must not be modified.
+	 */
+	private MessageComponent[] getSimpleComponents() {
+		MessageComponent[] simpleComponents = this.simpleComponents;
+		if (simpleComponents == null) {
 			assert simpleUnformatted != null;
-			return ChatMessages.parse(simpleUnformatted);
+			this.simpleComponents = simpleComponents = ChatMessages.parseToArray(simpleUnformatted);
+		}
+		return simpleComponents;
+	}
+
+	/**
+	 * Copies the given components, so that the copies can be modified without affecting the cached components.
+	 */
+	private static List<MessageComponent> copyComponents(MessageComponent[] components) {
+		List<MessageComponent> copies = new ArrayList<>(components.length);
+		for (MessageComponent component : components)
+			copies.add(component.copy());
+		return copies;
+	}
+
+	/**
+	 * Message components along with the texts the expressions of the string were rendered to.
+	 */
+	private static final class RenderedMessage {
+
+		private final String[] texts;
+		private final MessageComponent[] components;
+
+		private RenderedMessage(String[] texts, MessageComponent[] components) {
+			this.texts = texts;
+			this.components = components;
 		}
 
-		return ChatMessages.parse(toUnformattedString(event));
 	}
 
 	/**
@@ -516,6 +597,21 @@ public class VariableString implements Expression<String> {
 	 * @return The input string with all expressions replaced.
 	 */
 	public String toString(@Nullable Event event) {
+		return toString(event, null);
+	}
+
+	/**
+	 * Parses all expressions in the string and returns it,
+	 * while keeping track of the types of the values that were inserted into the string.
+	 * If this is a simple string, the event may be null.
+	 *
+	 * @param event Event to pass to the expressions.
+	 * @param types An array of at least {@link #getExpressionCount()} elements, which the class of the first value
+	 *              of each expression will be stored in, or {@code null} where an expression returned nothing.
+	 *              If the array itself is {@code null}, the types will not be tracked.
+	 * @return The input string with all expressions replaced.
+	 */
+	public String toString(@Nullable Event event, Class<?> @Nullable [] types) {
 		if (isSimple) {
 			assert simple != null;
 			return simple;
@@ -526,24 +622,26 @@ public class VariableString implements Expression<String> {
 		Object[] string = this.strings;
 		assert string != null;
 		StringBuilder builder = new StringBuilder();
-		List<Class<?>> types = new ArrayList<>();
+		int expressionIndex = 0;
 		for (Object object : string) {
 			if (object instanceof Expression<?>) {
 				Object[] objects = ((Expression<?>) object).getArray(event);
-				if (objects != null && objects.length > 0)
-					types.add(objects[0].getClass());
+				if (types != null)
+					types[expressionIndex] = objects != null && objects.length > 0 ? objects[0].getClass() : null;
+				expressionIndex++;
 				builder.append(Classes.toString(objects, true, mode));
 			} else {
 				builder.append(object);
 			}
 		}
-		String complete = builder.toString();
-		if (script != null && mode == StringMode.VARIABLE_NAME && !types.isEmpty()) {
-			DefaultVariables data = script.getData(DefaultVariables.class);
-			if (data != null)
-				data.add(complete, types.toArray(new Class<?>[0]));
-		}
-		return complete;
+		return builder.toString();
+	}
+
+	/**
+	 * @return The amount of expressions in this string.
+	 */
+	public int getExpressionCount() {
+		return expressionCount;
 	}
 
 	/**
@@ -573,8 +671,11 @@ public class VariableString implements Expression<String> {
 	 * Builds all possible default variable type hints based on the super type of the expression.
 	 *
 	 * @return List<String> of all possible super class code names.
+	 * @deprecated The type hints are no longer recorded in {@link DefaultVariables} when this string is evaluated,
+	 * use {@link #toString(Event, Class[])} and {@link #getDefaultVariableNames(Class[])} instead.
 	 */
 	@NotNull
+	@Deprecated
 	public List<String> getDefaultVariableNames(String variableName, Event event) {
 		if (script == null || mode != StringMode.VARIABLE_NAME)
 			return Lists.newArrayList();
@@ -585,12 +686,26 @@ public class VariableString implements Expression<String> {
 		}
 
 		DefaultVariables data = script.getData(DefaultVariables.class);
-		// Checked in Variable#getRaw already
-		assert data != null : "default variables not present in current script";
+		if (data == null)
+			return Lists.newArrayList();
 
 		Class<?>[] savedHints = data.get(variableName);
 		if (savedHints == null || savedHints.length == 0)
 			return Lists.newArrayList();
+		return getDefaultVariableNames(savedHints);
+	}
+
+	/**
+	 * Builds all possible default variable names for this variable name,
+	 * by replacing each expression with the code names of the super class infos of the given types,
+	 * e.g. {@code balance::<player>}, {@code balance::<offlineplayer>}, ..., {@code balance::<object>}.
+	 *
+	 * @param types The types of the values of each expression, as returned by {@link #toString(Event, Class[])}.
+	 * @return All possible default variable names, or an empty list if any of the types is unknown.
+	 */
+	public List<String> getDefaultVariableNames(Class<?>[] types) {
+		if (isSimple || mode != StringMode.VARIABLE_NAME)
+			return new ArrayList<>(0);
 
 		List<StringBuilder> typeHints = Lists.newArrayList(new StringBuilder());
 		// Represents the index of which expression in a variable string, example name::%entity%::%object% the index of 0 will be entity.
@@ -601,8 +716,10 @@ public class VariableString implements Expression<String> {
 				typeHints.forEach(builder -> builder.append(object));
 				continue;
 			}
+			if (hintIndex >= types.length || types[hintIndex] == null)
+				return new ArrayList<>(0);
 			StringBuilder[] current = typeHints.toArray(new StringBuilder[0]);
-			for (ClassInfo<?> classInfo : Classes.getAllSuperClassInfos(savedHints[hintIndex])) {
+			for (ClassInfo<?> classInfo : Classes.getAllSuperClassInfos(types[hintIndex])) {
 				for (StringBuilder builder : current) {
 					String hint = builder.toString() + "<" + classInfo.getCodeName() + ">";
 					// Has to duplicate the builder as it builds multiple off the last builder.
@@ -615,6 +732,39 @@ public class VariableString implements Expression<String> {
 		return typeHints.stream().map(StringBuilder::toString).collect(Collectors.toList());
 	}
 
+	/**
+	 * Checks whether any of the default variables of a script could be built by {@link #getDefaultVariableNames(Class[])},
+	 * i.e. whether one has the same name as this variable name with each expression replaced by a type,
+	 * such as {@code balance::<player>} for {@code balance::%player%}.
+	 * This is used to find out when parsing whether a variable can have a default value at all.
+	 *
+	 * @param defaultVariables The default variables of a script.
+	 * @return Whether any of the default variables could provide a default value for this variable name.
+	 */
+	public boolean hasDefaultVariable(DefaultVariables defaultVariables) {
+		if (isSimple || mode != StringMode.VARIABLE_NAME)
+			return false;
+
+		assert strings != null;
+		StringBuilder regex = new StringBuilder();
+		for (Object object : strings) {
+			if (object instanceof Expression) {
+				regex.append("<[^<>]+>");
+			} else {
+				regex.append(Pattern.quote(String.valueOf(object)));
+			}
+		}
+		int flags = Variables.caseInsensitiveVariables ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+		Pattern pattern = Pattern.compile(regex.toString(), flags);
+
+		for (NonNullPair<String, Object> defaultVariable : defaultVariables.getVariables()) {
+			String name = defaultVariable.getKey();
+			if (name.indexOf('<') != -1 && pattern.matcher(name).matches())
+				return true;
+		}
+		return false;
+	}
+
 	public boolean isSimple() {
 		return isSimple;
 	}
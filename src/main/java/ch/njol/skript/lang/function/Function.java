@@ -39,10 +39,32 @@ public abstract class Function<T> {
 	public static boolean executeWithNulls = SkriptConfig.executeFunctionsWithMissingParams.value();
 
 	private final Signature<T> sign;
+
+	@Nullable
+	private volatile FunctionCache cache;
 	
 	public Function(Signature<T> sign) {
 		this.sign = sign;
 	}
+
+	/**
+	 * Makes this function cache its results by the values of its arguments,
+	 * so that repeated calls with the same arguments don't execute it again.
+	 * Only use this for functions that always return the same result for the same arguments, and have no side effects.
+	 *
+	 * @param cache The cache to use, or null to stop caching results.
+	 */
+	public void setCache(@Nullable FunctionCache cache) {
+		this.cache = cache;
+	}
+
+	/**
+	 * @return The cache of this function's results, or null if its results aren't cached.
+	 */
+	@Nullable
+	public FunctionCache getCache() {
+		return cache;
+	}
 	
 	/**
 	 * Gets signature of this function that contains all metadata about it.
@@ -83,7 +105,7 @@ public abstract class Function<T> {
 	 * {@link Signature#getMaxParameters()} elements.
 	 * @return The result(s) of this function
 	 */
-	@SuppressWarnings("null")
+	@SuppressWarnings({"null", "unchecked"})
 	@Nullable
 	public final T[] execute(Object[][] params) {
 		FunctionEvent<? extends T> e = new FunctionEvent<>(this);
@@ -125,8 +147,22 @@ public abstract class Function<T> {
 			ps[i] = val;
 		}
 		
+		FunctionCache cache = this.cache;
+		FunctionCache.Arguments key = null;
+		if (cache != null) {
+			Object[] cached = cache.get(FunctionCache.view(ps));
+			if (cached != null)
+				return FunctionCache.isNoResult(cached) ? null : (T[]) cached;
+			// Copied before execution, as the function may modify its arguments
+			key = FunctionCache.key(ps);
+		}
+
 		// Execute function contents
 		T[] r = execute(e, ps);
+		if (cache != null) {
+			assert key != null;
+			cache.put(key, r);
+		}
 		// Assert that return value type makes sense
 		assert sign.getReturnType() == null ? r == null : r == null
 			|| (r.length <= 1 || !sign.isSingle()) && !CollectionUtils.contains(r, null)
@@ -0,0 +1,199 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang.function;
+
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.Timespan.TimePeriod;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache of the results of a function, keyed by the values of its arguments.
+ * Only suitable for functions that always return the same result for the same arguments.
+ * <p>
+ * Entries are evicted once the cache exceeds its maximum size, and expire a fixed time after they were computed.
+ * The cache belongs to a single {@link Function} instance, so it is discarded when the function's script is reloaded.
+ *
+ * @see Function#setCache(FunctionCache)
+ */
+public final class FunctionCache {
+
+	/**
+	 * Marks a cached call that didn't return anything, as the cache doesn't support null values.
+	 */
+	private static final Object[] NO_RESULT = new Object[0];
+
+	private final Cache<Arguments, Object[]> cache;
+
+	/**
+	 * @param maximumSize The maximum amount of cached results.
+	 * @param expiryMillis The time after which a result expires, in milliseconds. Results don't expire if this is 0.
+	 */
+	public FunctionCache(long maximumSize, long expiryMillis) {
+		CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+			.maximumSize(maximumSize)
+			.recordStats();
+		if (expiryMillis > 0)
+			builder.expireAfterWrite(expiryMillis, TimeUnit.MILLISECONDS);
+		cache = builder.build();
+	}
+
+	/**
+	 * @return A new cache with the size and expiry from Skript's config.
+	 */
+	public static FunctionCache fromConfig() {
+		return new FunctionCache(
+			Math.max(0, SkriptConfig.cachedFunctionSize.value()),
+			SkriptConfig.cachedFunctionExpiry.value().getAs(TimePeriod.MILLISECOND)
+		);
+	}
+
+	/**
+	 * Creates a key to look up a call with the given arguments, without copying them.
+	 * The key must not be stored, use {@link #key(Object[][])} for that.
+	 *
+	 * @param params The values of the arguments, after default values have been filled in.
+	 * @return The key to pass to {@link #get(Arguments)}.
+	 */
+	static Arguments view(Object[][] params) {
+		return new Arguments(params);
+	}
+
+	/**
+	 * Creates the key to store the result of a call with the given arguments. The arguments are copied and cloned,
+	 * so that the function modifying its arguments doesn't modify the key.
+	 *
+	 * @param params The values of the arguments, after default values have been filled in.
+	 * @return The key to pass to {@link #put(Arguments, Object[])}.
+	 */
+	static Arguments key(Object[][] params) {
+		Object[][] key = new Object[params.length][];
+		for (int i = 0; i < params.length; i++) {
+			key[i] = new Object[params[i].length];
+			for (int j = 0; j < key[i].length; j++)
+				key[i][j] = Classes.clone(params[i][j]);
+		}
+		return new Arguments(key);
+	}
+
+	/**
+	 * @param key The key of the call, see {@link #view(Object[][])}.
+	 * @return The cached result of a call with the given arguments, {@link #NO_RESULT} if that call didn't return anything,
+	 * or null if there is no such call in the cache.
+	 */
+	Object @Nullable [] get(Arguments key) {
+		Object[] result = cache.getIfPresent(key);
+		if (result == null || result == NO_RESULT)
+			return result;
+		// callers may modify the returned values, like the results of a regular call
+		Object[] copy = Arrays.copyOf(result, result.length);
+		for (int i = 0; i < copy.length; i++)
+			copy[i] = Classes.clone(copy[i]);
+		return copy;
+	}
+
+	/**
+	 * @return Whether the given value returned by {@link #get(Arguments)} represents a call that didn't return anything.
+	 */
+	static boolean isNoResult(Object[] result) {
+		return result == NO_RESULT;
+	}
+
+	/**
+	 * @param key The key of the call, created before the function was executed, see {@link #key(Object[][])}.
+	 */
+	void put(Arguments key, Object @Nullable [] result) {
+		// callers may modify the result
+		Object[] value = result == null || result.length == 0 ? NO_RESULT : Arrays.copyOf(result, result.length);
+		if (value != NO_RESULT) {
+			for (int i = 0; i < value.length; i++)
+				value[i] = Classes.clone(value[i]);
+		}
+		cache.put(key, value);
+	}
+
+	/**
+	 * Removes all cached results.
+	 */
+	public void invalidate() {
+		cache.invalidateAll();
+	}
+
+	/**
+	 * @return The amount of calls that were answered from this cache.
+	 */
+	public long getHits() {
+		return cache.stats().hitCount();
+	}
+
+	/**
+	 * @return The amount of calls that had to execute the function.
+	 */
+	public long getMisses() {
+		return cache.stats().missCount();
+	}
+
+	/**
+	 * @return The approximate amount of cached results.
+	 */
+	public long size() {
+		return cache.size();
+	}
+
+	@Override
+	public String toString() {
+		return "function cache (" + size() + " results, " + getHits() + " hits, " + getMisses() + " misses)";
+	}
+
+	/**
+	 * The argument values of a call, compared by their values.
+	 */
+	static final class Arguments {
+
+		private final Object[][] params;
+		private final int hashCode;
+
+		private Arguments(Object[][] params) {
+			this.params = params;
+			this.hashCode = Arrays.deepHashCode(params);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Arguments))
+				return false;
+			Arguments other = (Arguments) obj;
+			return hashCode == other.hashCode && Arrays.deepEquals(params, other.params);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+	}
+
+}
@@ -73,6 +73,12 @@ public class FunctionReference<T> implements Contract {
 	 */
 	private final Expression<?>[] parameters;
 
+	/**
+	 * Whether the values of each parameter may have to be cloned before passing them to the function,
+	 * see {@link Classes#isCloneable(Class)}. Null until the function is called for the first time.
+	 */
+	private boolean @Nullable [] cloneParameters;
+
 	/**
 	 * Indicates if the caller expects this function to return a single value.
 	 * Used for verifying correctness of the function signature.
@@ -265,6 +271,7 @@ public class FunctionReference<T> implements Contract {
 		
 		signature = (Signature<? extends T>) sign;
 		sign.calls.add(this);
+		cloneParameters = null;
 
 		Contract contract = sign.getContract();
 		if (contract != null)
@@ -296,21 +303,40 @@ public class FunctionReference<T> implements Contract {
 			return null; // Return nothing and hope it works
 		}
 		
+		boolean[] cloneParameters = this.cloneParameters;
+		if (cloneParameters == null) {
+			cloneParameters = new boolean[parameters.length];
+			for (int i = 0; i < parameters.length; i++)
+				cloneParameters[i] = Classes.isCloneable(parameters[i].getReturnType());
+			this.cloneParameters = cloneParameters;
+		}
+
 		// Prepare parameter values for calling
 		Object[][] params = new Object[singleListParam ? 1 : parameters.length][];
 		if (singleListParam && parameters.length > 1) { // All parameters to one list
 			List<Object> l = new ArrayList<>();
-			for (Expression<?> parameter : parameters)
-				l.addAll(Arrays.asList(parameter.getArray(e)));
+			boolean clone = false;
+			for (int i = 0; i < parameters.length; i++) {
+				l.addAll(Arrays.asList(parameters[i].getArray(e)));
+				clone |= cloneParameters[i];
+			}
 			params[0] = l.toArray();
 			
 			// Don't allow mutating across function boundary; same hack is applied to variables
-			for (int i = 0; i < params[0].length; i++) {
-				params[0][i] = Classes.clone(params[0][i]);
+			if (clone) {
+				for (int i = 0; i < params[0].length; i++) {
+					params[0][i] = Classes.clone(params[0][i]);
+				}
 			}
 		} else { // Use parameters in normal way
+			// script functions only read the given arrays, so they don't need copies of values that aren't cloned
+			boolean copy = !(function instanceof ScriptFunction);
 			for (int i = 0; i < parameters.length; i++) {
 				Object[] array = parameters[i].getArray(e);
+				if (!cloneParameters[i]) { // immutable values can be passed as they are
+					params[i] = copy ? Arrays.copyOf(array, array.length) : array;
+					continue;
+				}
 				params[i] = Arrays.copyOf(array, array.length);
 				// Don't allow mutating across function boundary; same hack is applied to variables
 				for (int j = 0; j < params[i].length; j++) {
@@ -98,6 +98,19 @@ public abstract class JavaFunction<T> extends Function<T> {
 		return this;
 	}
 	
+	/**
+	 * Caches the results of this function by the values of its arguments, see {@link #setCache(FunctionCache)}.
+	 * Only use this for functions that always return the same result for the same arguments,
+	 * and that are expensive enough for a cache lookup to be worth it.
+	 *
+	 * @return This JavaFunction object
+	 */
+	public JavaFunction<T> cached() {
+		assert getCache() == null;
+		setCache(FunctionCache.fromConfig());
+		return this;
+	}
+	
 	@Nullable
 	public String[] getDescription() {
 		return description;
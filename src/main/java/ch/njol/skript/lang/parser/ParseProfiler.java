@@ -0,0 +1,457 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.lang.parser;
+
+import ch.njol.skript.config.Config;
+import ch.njol.skript.config.Node;
+import ch.njol.skript.lang.SyntaxElementInfo;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.eclipse.jdt.annotation.Nullable;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Records how long loading scripts takes, per script, structure, line and syntax element, while enabled.
+ * <p>
+ * Structures are timed from parsing until they are loaded, lines from the start until the end of parsing them.
+ * The time of a line does not include the lines of the sections it contains, but its total time does.
+ * Every attempt to parse a pattern of a syntax element is counted, and the time spent in it,
+ * excluding nested attempts and lines, is attributed to the syntax element and the line it was attempted for.
+ * <p>
+ * Recording is disabled by default, as timing every pattern attempt has a noticeable overhead.
+ * The times of repeated loads, e.g. reloads, are added together until the recording is restarted.
+ */
+@ApiStatus.Internal
+public final class ParseProfiler {
+
+	/**
+	 * The categories the recorded times can be reported by.
+	 */
+	public enum Category {
+		SCRIPTS, STRUCTURES, LINES, SYNTAX
+	}
+
+	/**
+	 * The amount of syntax elements that took the most time reported for each line.
+	 */
+	private static final int ELEMENTS_PER_LINE = 3;
+
+	private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+	private static volatile boolean enabled;
+
+	private static final Map<String, StructureRecord> structures = new ConcurrentHashMap<>();
+	private static final Map<String, LineRecord> lines = new ConcurrentHashMap<>();
+	private static final Map<SyntaxElementInfo<?>, ElementRecord> elements = new ConcurrentHashMap<>();
+
+	/**
+	 * The structures, lines and attempts that are currently being timed by each thread, innermost first.
+	 */
+	private static final ThreadLocal<ArrayDeque<Frame>> FRAMES = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private ParseProfiler() {}
+
+	/**
+	 * @return Whether parse times are currently being recorded.
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Discards all recorded times and starts recording.
+	 */
+	public static void start() {
+		structures.clear();
+		lines.clear();
+		elements.clear();
+		enabled = true;
+	}
+
+	/**
+	 * Stops recording. The recorded times are kept until recording is started again.
+	 */
+	public static void stop() {
+		enabled = false;
+	}
+
+	/**
+	 * Starts timing a structure, if recording. Must be followed by {@link #exitStructure(Node)} if this returns true.
+	 *
+	 * @return Whether the structure is being timed.
+	 */
+	public static boolean enterStructure() {
+		return enter(false);
+	}
+
+	/**
+	 * Stops timing the structure of the given node.
+	 */
+	public static void exitStructure(Node node) {
+		Frame frame = exit();
+		structures.computeIfAbsent(getKey(node), key -> new StructureRecord(node)).add(frame.getTotal());
+	}
+
+	/**
+	 * Starts timing a line, if recording. Must be followed by {@link #exitLine(Node)} if this returns true.
+	 *
+	 * @return Whether the line is being timed.
+	 */
+	public static boolean enterLine() {
+		return enter(true);
+	}
+
+	/**
+	 * Stops timing the line of the given node.
+	 */
+	public static void exitLine(Node node) {
+		Frame frame = exit();
+		lines.computeIfAbsent(getKey(node), key -> new LineRecord(node)).add(frame);
+	}
+
+	/**
+	 * Starts timing an attempt to parse a pattern, if recording.
+	 * Must be followed by {@link #exitAttempt(SyntaxElementInfo, boolean)} if this returns true.
+	 *
+	 * @return Whether the attempt is being timed.
+	 */
+	public static boolean enterAttempt() {
+		return enter(false);
+	}
+
+	/**
+	 * Stops timing an attempt to parse a pattern of the given syntax element.
+	 *
+	 * @param matched Whether the attempt resulted in a syntax element.
+	 */
+	public static void exitAttempt(SyntaxElementInfo<?> info, boolean matched) {
+		Frame frame = exit();
+		long self = frame.getSelf();
+		Frame line = frame.line;
+		if (line != null) {
+			line.attempts++;
+			line.elements.merge(info, self, Long::sum);
+		}
+		elements.computeIfAbsent(info, ElementRecord::new).add(self, matched);
+	}
+
+	private static boolean enter(boolean isLine) {
+		if (!enabled)
+			return false;
+		ArrayDeque<Frame> frames = FRAMES.get();
+		Frame parent = frames.peek();
+		Frame line = parent == null ? null : parent.isLine ? parent : parent.line;
+		frames.push(new Frame(isLine, line));
+		return true;
+	}
+
+	private static Frame exit() {
+		ArrayDeque<Frame> frames = FRAMES.get();
+		Frame frame = frames.pop();
+		frame.end = System.nanoTime();
+		Frame parent = frames.peek();
+		if (parent != null)
+			parent.childNanos += frame.getTotal();
+		return frame;
+	}
+
+	private static String getKey(Node node) {
+		return getScript(node) + ':' + node.getLine();
+	}
+
+	private static String getScript(Node node) {
+		Config config = node.getConfig();
+		return config == null ? "" : config.getFileName();
+	}
+
+	/**
+	 * Describes the recorded times of the given category, most time first.
+	 *
+	 * @param category What to report the times of.
+	 * @param limit The maximum amount of entries to describe.
+	 * @return A line of text for each entry.
+	 */
+	public static List<String> describe(Category category, int limit) {
+		List<String> description = new ArrayList<>();
+		switch (category) {
+			case SCRIPTS:
+				for (Map.Entry<String, Long> entry : top(getScriptTimes().entrySet(), Map.Entry::getValue, limit))
+					description.add(entry.getKey() + ": " + format(entry.getValue()));
+				break;
+			case STRUCTURES:
+				for (StructureRecord record : top(structures.values(), StructureRecord::getTotal, limit))
+					description.add(record.script + ", line " + record.line + ": " + format(record.getTotal()) + " (" + record.text + ")");
+				break;
+			case LINES:
+				for (LineRecord record : top(lines.values(), LineRecord::getSelf, limit)) {
+					description.add(record.script + ", line " + record.line + ": " + format(record.getSelf())
+						+ ", " + record.getAttempts() + " patterns tried (" + record.text + ")");
+				}
+				break;
+			case SYNTAX:
+				for (ElementRecord record : top(elements.values(), ElementRecord::getSelf, limit)) {
+					description.add(record.info.getElementClass().getName() + ": " + format(record.getSelf())
+						+ ", " + record.getAttempts() + " patterns tried, " + record.getMatches() + " matched");
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown category " + category);
+		}
+		return description;
+	}
+
+	/**
+	 * Writes all recorded times to the given file as JSON, most time first.
+	 */
+	public static void write(File file) throws IOException {
+		JsonObject report = new JsonObject();
+
+		JsonArray scriptsArray = new JsonArray();
+		for (Map.Entry<String, Long> entry : top(getScriptTimes().entrySet(), Map.Entry::getValue, Integer.MAX_VALUE)) {
+			JsonObject script = new JsonObject();
+			script.addProperty("script", entry.getKey());
+			script.addProperty("time_ms", entry.getValue() / NANOS_PER_MILLI);
+			scriptsArray.add(script);
+		}
+		report.add("scripts", scriptsArray);
+
+		JsonArray structuresArray = new JsonArray();
+		for (StructureRecord record : top(structures.values(), StructureRecord::getTotal, Integer.MAX_VALUE)) {
+			JsonObject structure = new JsonObject();
+			structure.addProperty("script", record.script);
+			structure.addProperty("line", record.line);
+			structure.addProperty("text", record.text);
+			structure.addProperty("time_ms", record.getTotal() / NANOS_PER_MILLI);
+			structuresArray.add(structure);
+		}
+		report.add("structures", structuresArray);
+
+		JsonArray linesArray = new JsonArray();
+		for (LineRecord record : top(lines.values(), LineRecord::getSelf, Integer.MAX_VALUE)) {
+			JsonObject line = new JsonObject();
+			line.addProperty("script", record.script);
+			line.addProperty("line", record.line);
+			line.addProperty("text", record.text);
+			line.addProperty("time_ms", record.getSelf() / NANOS_PER_MILLI);
+			line.addProperty("total_time_ms", record.getTotal() / NANOS_PER_MILLI);
+			line.addProperty("patterns_tried", record.getAttempts());
+			JsonArray lineElements = new JsonArray();
+			for (Map.Entry<SyntaxElementInfo<?>, Long> entry : top(record.getElements().entrySet(), Map.Entry::getValue, ELEMENTS_PER_LINE)) {
+				JsonObject element = new JsonObject();
+				element.addProperty("element", entry.getKey().getElementClass().getName());
+				element.addProperty("time_ms", entry.getValue() / NANOS_PER_MILLI);
+				lineElements.add(element);
+			}
+			line.add("slowest_syntax", lineElements);
+			linesArray.add(line);
+		}
+		report.add("lines", linesArray);
+
+		JsonArray elementsArray = new JsonArray();
+		for (ElementRecord record : top(elements.values(), ElementRecord::getSelf, Integer.MAX_VALUE)) {
+			JsonObject element = new JsonObject();
+			element.addProperty("element", record.info.getElementClass().getName());
+			element.addProperty("time_ms", record.getSelf() / NANOS_PER_MILLI);
+			element.addProperty("patterns_tried", record.getAttempts());
+			element.addProperty("matches", record.getMatches());
+			elementsArray.add(element);
+		}
+		report.add("syntax", elementsArray);
+
+		File parent = file.getParentFile();
+		if (parent != null)
+			parent.mkdirs();
+		Files.write(file.toPath(), new GsonBuilder().setPrettyPrinting().create().toJson(report).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return The total time of the structures of each script.
+	 */
+	private static Map<String, Long> getScriptTimes() {
+		Map<String, Long> scripts = new HashMap<>();
+		for (StructureRecord record : structures.values())
+			scripts.merge(record.script, record.getTotal(), Long::sum);
+		return scripts;
+	}
+
+	private static <T> List<T> top(Iterable<T> values, Function<T, Long> time, int limit) {
+		List<T> sorted = new ArrayList<>();
+		values.forEach(sorted::add);
+		sorted.sort(Comparator.comparing(time).reversed());
+		return sorted.size() > limit ? sorted.subList(0, limit) : sorted;
+	}
+
+	private static String format(long nanos) {
+		return String.format(Locale.ENGLISH, "%.2fms", nanos / NANOS_PER_MILLI);
+	}
+
+	private static final class Frame {
+
+		private final boolean isLine;
+
+		/**
+		 * The innermost line this frame is a part of.
+		 */
+		@Nullable
+		private final Frame line;
+
+		private final long start = System.nanoTime();
+		private long end;
+
+		/**
+		 * The total time of the frames directly nested in this one.
+		 */
+		private long childNanos;
+
+		/**
+		 * The attempts made for this line, if this is a line.
+		 */
+		private int attempts;
+		private final Map<SyntaxElementInfo<?>, Long> elements = new HashMap<>();
+
+		private Frame(boolean isLine, @Nullable Frame line) {
+			this.isLine = isLine;
+			this.line = line;
+		}
+
+		private long getTotal() {
+			return end - start;
+		}
+
+		private long getSelf() {
+			return getTotal() - childNanos;
+		}
+
+	}
+
+	private static final class StructureRecord {
+
+		private final String script;
+		private final int line;
+		private final String text;
+
+		private long total;
+
+		private StructureRecord(Node node) {
+			this.script = getScript(node);
+			this.line = node.getLine();
+			this.text = String.valueOf(node.getKey());
+		}
+
+		private synchronized void add(long nanos) {
+			total += nanos;
+		}
+
+		private synchronized long getTotal() {
+			return total;
+		}
+
+	}
+
+	private static final class LineRecord {
+
+		private final String script;
+		private final int line;
+		private final String text;
+
+		private long total;
+		private long self;
+		private int attempts;
+		private final Map<SyntaxElementInfo<?>, Long> elements = new HashMap<>();
+
+		private LineRecord(Node node) {
+			this.script = getScript(node);
+			this.line = node.getLine();
+			this.text = String.valueOf(node.getKey());
+		}
+
+		private synchronized void add(Frame frame) {
+			total += frame.getTotal();
+			self += frame.getSelf();
+			attempts += frame.attempts;
+			frame.elements.forEach((info, nanos) -> elements.merge(info, nanos, Long::sum));
+		}
+
+		private synchronized long getTotal() {
+			return total;
+		}
+
+		private synchronized long getSelf() {
+			return self;
+		}
+
+		private synchronized int getAttempts() {
+			return attempts;
+		}
+
+		private synchronized Map<SyntaxElementInfo<?>, Long> getElements() {
+			return new HashMap<>(elements);
+		}
+
+	}
+
+	private static final class ElementRecord {
+
+		private final SyntaxElementInfo<?> info;
+
+		private long self;
+		private int attempts;
+		private int matches;
+
+		private ElementRecord(SyntaxElementInfo<?> info) {
+			this.info = info;
+		}
+
+		private synchronized void add(long nanos, boolean matched) {
+			self += nanos;
+			attempts++;
+			if (matched)
+				matches++;
+		}
+
+		private synchronized long getSelf() {
+			return self;
+		}
+
+		private synchronized int getAttempts() {
+			return attempts;
+		}
+
+		private synchronized int getMatches() {
+			return matches;
+		}
+
+	}
+
+}
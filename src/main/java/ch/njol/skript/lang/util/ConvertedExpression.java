@@ -32,6 +32,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.skriptlang.skript.lang.converter.Converter;
 import org.skriptlang.skript.lang.converter.ConverterInfo;
 import org.skriptlang.skript.lang.converter.Converters;
+import org.skriptlang.skript.lang.util.InlineCache;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -80,13 +81,21 @@ public class ConvertedExpression<F, T> implements Expression<T> {
 		this.source = source;
 		this.to = to;
 		this.converterInfos = infos;
+		// remembers which of the converters are safe to attempt for the type of the last converted object
+		InlineCache<List<ConverterInfo<? super F, ? extends T>>> applicableInfos = new InlineCache<>((type, unused) -> {
+			List<ConverterInfo<? super F, ? extends T>> applicable = new ArrayList<>(infos.size());
+			for (ConverterInfo<? super F, ? extends T> info : infos) {
+				if (!performFromCheck || info.getFrom().isAssignableFrom(type))
+					applicable.add(info);
+			}
+			return applicable;
+		});
 		this.converter = fromObject -> {
-			for (ConverterInfo<? super F, ? extends T> info : converterInfos) {
-				if (!performFromCheck || info.getFrom().isInstance(fromObject)) { // the converter is safe to attempt
-					T converted = info.getConverter().convert(fromObject);
-					if (converted != null)
-						return converted;
-				}
+			//noinspection ConstantConditions - the resolver never returns null
+			for (ConverterInfo<? super F, ? extends T> info : applicableInfos.get(fromObject.getClass(), to)) {
+				T converted = info.getConverter().convert(fromObject);
+				if (converted != null)
+					return converted;
 			}
 			return null;
 		};
@@ -21,11 +21,13 @@ package ch.njol.skript.patterns;
 import com.google.common.base.MoreObjects;
 import com.google.common.collect.ImmutableSet;
 import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -44,6 +46,14 @@ abstract class Keyword {
 	 */
 	abstract boolean isPresent(String expr);
 
+	/**
+	 * Determines the literals an expression has to start with for this keyword to be present.
+	 * @return The literals of which at least one must start an expression containing this keyword,
+	 * 	or null if this keyword does not require any specific start.
+	 */
+	@Nullable
+	abstract Set<String> getStartingLiterals();
+
 	/**
 	 * Builds a list of keywords starting from the provided pattern element.
 	 * @param first The pattern to build keywords from.
@@ -117,6 +127,12 @@ abstract class Keyword {
 			return expr.contains(keyword);
 		}
 
+		@Override
+		@Nullable
+		Set<String> getStartingLiterals() {
+			return starting ? Collections.singleton(keyword) : null;
+		}
+
 		@Override
 		public int hashCode() {
 			return Objects.hash(keyword, starting, ending);
@@ -161,6 +177,25 @@ abstract class Keyword {
 			return choices.stream().anyMatch(keywords -> keywords.stream().allMatch(keyword -> keyword.isPresent(expr)));
 		}
 
+		@Override
+		@Nullable
+		Set<String> getStartingLiterals() {
+			// every choice must require a start, as any one of them may be the one present
+			Set<String> literals = new HashSet<>();
+			for (Set<Keyword> choice : choices) {
+				Set<String> choiceLiterals = null;
+				for (Keyword keyword : choice) {
+					choiceLiterals = keyword.getStartingLiterals();
+					if (choiceLiterals != null)
+						break;
+				}
+				if (choiceLiterals == null)
+					return null;
+				literals.addAll(choiceLiterals);
+			}
+			return literals;
+		}
+
 		@Override
 		public int hashCode() {
 			return Arrays.hashCode(choices.toArray());
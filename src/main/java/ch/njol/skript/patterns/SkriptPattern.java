@@ -27,6 +27,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 
 public class SkriptPattern {
 
@@ -68,6 +69,24 @@ public class SkriptPattern {
 		return match(expr, SkriptParser.ALL_FLAGS, ParseContext.DEFAULT);
 	}
 
+	/**
+	 * Determines the literals an expression has to start with to be able to match this pattern,
+	 * which allows skipping this pattern without attempting to match it.
+	 * The literals are compared against the lowercase expression, as done by {@link #match(String, int, ParseContext)}.
+	 *
+	 * @return The literals of which at least one starts every expression matching this pattern,
+	 * 	or null if this pattern can match expressions with any start.
+	 */
+	@Nullable
+	public Set<String> getStartingLiterals() {
+		for (Keyword keyword : keywords) {
+			Set<String> literals = keyword.getStartingLiterals();
+			if (literals != null)
+				return literals;
+		}
+		return null;
+	}
+
 	@Override
 	public String toString() {
 		return first.toFullString();
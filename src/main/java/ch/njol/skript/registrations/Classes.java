@@ -34,7 +34,10 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 import ch.njol.skript.command.Commands;
@@ -82,8 +85,24 @@ public abstract class Classes {
 	private static ClassInfo<?>[] classInfos = null;
 	private final static List<ClassInfo<?>> tempClassInfos = new ArrayList<>();
 	private final static HashMap<Class<?>, ClassInfo<?>> exactClassInfos = new HashMap<>();
-	private final static HashMap<Class<?>, ClassInfo<?>> superClassInfos = new HashMap<>();
+	// written while parsing, which may happen on several loader threads at once
+	private final static Map<Class<?>, ClassInfo<?>> superClassInfos = new ConcurrentHashMap<>();
 	private final static HashMap<String, ClassInfo<?>> classInfosByCodeName = new HashMap<>();
+
+	/**
+	 * The class info whose parser is used to convert instances of a class to strings, if any.
+	 * May only be used once registration is over.
+	 */
+	private final static ClassValue<Optional<ClassInfo<?>>> stringifiers = new ClassValue<Optional<ClassInfo<?>>>() {
+		@Override
+		protected Optional<ClassInfo<?>> computeValue(Class<?> type) {
+			for (ClassInfo<?> classInfo : getClassInfos()) {
+				if (classInfo.getParser() != null && classInfo.getC().isAssignableFrom(type))
+					return Optional.of(classInfo);
+			}
+			return Optional.empty();
+		}
+	};
 	
 	/**
 	 * @param info info about the class to register
@@ -424,6 +443,25 @@ public abstract class Classes {
 		return ci == null ? null : ci.getDefaultExpression();
 	}
 	
+	/**
+	 * Checks whether values of the given type may have to be {@link #clone(Object) cloned},
+	 * i.e. whether a class info with a {@link ClassInfo#getCloner() cloner} could be responsible for them.
+	 * Values of other types are immutable as far as Skript is concerned, and cloning them returns them unchanged.
+	 *
+	 * @param type The type of the values
+	 * @return Whether cloning values of the given type may create a new object
+	 */
+	public static boolean isCloneable(Class<?> type) {
+		checkAllowClassInfoInteraction();
+		if (type.isArray())
+			return true;
+		for (ClassInfo<?> classInfo : getClassInfos()) {
+			if (classInfo.getCloner() != null && (classInfo.getC().isAssignableFrom(type) || type.isAssignableFrom(classInfo.getC())))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * Clones the given object by calling {@link ClassInfo#clone(Object)},
 	 * getting the {@link ClassInfo} from the closest registered superclass
@@ -649,15 +687,23 @@ public abstract class Classes {
 			}
 			return "[" + b.toString() + "]";
 		}
-		for (final ClassInfo<?> ci : getClassInfos()) {
+		if (mode == StringMode.MESSAGE || mode == StringMode.VARIABLE_NAME) {
+			// Fast paths for the most common values, matching their parsers
+			if (o instanceof String)
+				return (String) o;
+			if (o instanceof Long || o instanceof Integer)
+				return o.toString();
+		}
+		checkAllowClassInfoInteraction();
+		final ClassInfo<?> ci = stringifiers.get(o.getClass()).orElse(null);
+		if (ci != null) {
 			final Parser<?> parser = ci.getParser();
-			if (parser != null && ci.getC().isInstance(o)) {
-				@SuppressWarnings("unchecked")
-				final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
-						: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
-								: ((Parser<T>) parser).toString(o, mode);
-				return s;
-			}
+			assert parser != null;
+			@SuppressWarnings("unchecked")
+			final String s = mode == StringMode.MESSAGE ? ((Parser<T>) parser).toString(o, flags)
+					: mode == StringMode.DEBUG ? "[" + ci.getCodeName() + ":" + ((Parser<T>) parser).toString(o, mode) + "]"
+							: ((Parser<T>) parser).toString(o, mode);
+			return s;
 		}
 		return mode == StringMode.VARIABLE_NAME ? "object:" + o : "" + o;
 	}
@@ -706,7 +752,21 @@ public abstract class Classes {
 	@SuppressWarnings("null")
 	private final static Charset UTF_8 = Charset.forName("UTF-8");
 	
+	/**
+	 * The results of {@link #getYggdrasilStart(ClassInfo)}, which are constant for each class info.
+	 */
+	private final static Map<ClassInfo<?>, byte[]> yggdrasilStarts = new ConcurrentHashMap<>();
+	
 	private static byte[] getYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
+		final byte[] start = yggdrasilStarts.get(c);
+		if (start != null)
+			return start;
+		final byte[] r = computeYggdrasilStart(c);
+		yggdrasilStarts.put(c, r);
+		return r;
+	}
+	
+	private static byte[] computeYggdrasilStart(final ClassInfo<?> c) throws NotSerializableException {
 		assert Enum.class.isAssignableFrom(Kleenean.class) && Tag.getType(Kleenean.class) == Tag.T_ENUM : Tag.getType(Kleenean.class); // TODO why is this check here?
 		final Tag t = Tag.getType(c.getC());
 		assert t.isWrapper() || t == Tag.T_STRING || t == Tag.T_OBJECT || t == Tag.T_ENUM;
@@ -756,28 +816,82 @@ public abstract class Classes {
 		assert s.mustSyncDeserialization() ? Bukkit.isPrimaryThread() : true;
 		
 		try {
-			final ByteArrayOutputStream bout = new ByteArrayOutputStream();
-			final YggdrasilOutputStream yout = Variables.yggdrasil.newOutputStream(bout);
-			yout.writeObject(o);
-			yout.flush();
-			yout.close();
-			final byte[] r = bout.toByteArray();
 			final byte[] start = getYggdrasilStart(ci);
-			for (int i = 0; i < start.length; i++)
-				assert r[i] == start[i] : o + " (" + ci.getC().getName() + "); " + Arrays.toString(start) + ", " + Arrays.toString(r);
-			final byte[] r2 = new byte[r.length - start.length];
-			System.arraycopy(r, start.length, r2, 0, r2.length);
+			final Encoder encoder = ENCODERS.get();
+			final byte[] r = encoder.inUse ? new Encoder().encode(o, start) : encoder.encode(o, start);
 			
 			Object d;
-			assert equals(o, d = deserialize(ci, new ByteArrayInputStream(r2))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
+			assert equals(o, d = deserialize(ci, new ByteArrayInputStream(r))) : o + " (" + o.getClass() + ") != " + d + " (" + (d == null ? null : d.getClass()) + "): " + Arrays.toString(r);
 			
-			return new SerializedVariable.Value(ci.getCodeName(), r2);
+			return new SerializedVariable.Value(ci.getCodeName(), r);
 		} catch (final IOException e) { // shouldn't happen
 			Skript.exception(e);
 			return null;
 		}
 	}
 	
+	private final static ThreadLocal<Encoder> ENCODERS = ThreadLocal.withInitial(Encoder::new);
+	
+	/**
+	 * Serializes values into a buffer that is reused for all values serialized by a thread,
+	 * so that the only array created per value is the one holding the final serialized value.
+	 */
+	private final static class Encoder extends ByteArrayOutputStream {
+		
+		/**
+		 * Buffers that grew larger than this for a large value are discarded afterwards,
+		 * so that a single large value doesn't keep using memory.
+		 */
+		private final static int MAX_RETAINED_SIZE = 1 << 16;
+		private final static int INITIAL_SIZE = 256;
+		
+		@Nullable
+		private YggdrasilOutputStream out;
+		
+		/**
+		 * Whether this encoder is currently encoding a value, in case a serializer serializes another value while doing so.
+		 */
+		boolean inUse;
+		
+		Encoder() {
+			super(INITIAL_SIZE);
+		}
+		
+		/**
+		 * Serializes the given value, without the header that every value of its class info starts with.
+		 * 
+		 * @param o The value to serialize
+		 * @param start The header, as returned by {@link #getYggdrasilStart(ClassInfo)}
+		 * @return The serialized value
+		 */
+		byte[] encode(final Object o, final byte[] start) throws IOException {
+			reset();
+			YggdrasilOutputStream out = this.out;
+			if (out == null) {
+				out = this.out = Variables.yggdrasil.newOutputStream(this);
+			} else {
+				out.reset();
+			}
+			inUse = true;
+			try {
+				out.writeObject(o);
+				out.flush();
+				assert count >= start.length;
+				for (int i = 0; i < start.length; i++)
+					assert buf[i] == start[i] : o + "; " + Arrays.toString(start) + ", " + Arrays.toString(toByteArray());
+				return Arrays.copyOfRange(buf, start.length, count);
+			} catch (final IOException | RuntimeException e) {
+				this.out = null; // may be in an inconsistent state
+				throw e;
+			} finally {
+				inUse = false;
+				if (buf.length > MAX_RETAINED_SIZE)
+					buf = new byte[INITIAL_SIZE];
+			}
+		}
+		
+	}
+	
 	private static boolean equals(final @Nullable Object o, final @Nullable Object d) {
 		if (o instanceof Chunk) { // CraftChunk does neither override equals nor is it a "coordinate-specific singleton" like Block
 			if (!(d instanceof Chunk))
@@ -91,6 +91,11 @@ public class StructEvent extends Structure {
 		return event.postLoad();
 	}
 
+	@Override
+	public boolean canLoadInParallel() {
+		return event.canLoadInParallel();
+	}
+
 	@Override
 	public void unload() {
 		event.unload();
@@ -27,6 +27,8 @@ import ch.njol.skript.doc.Name;
 import ch.njol.skript.doc.Since;
 import ch.njol.skript.lang.Literal;
 import ch.njol.skript.lang.SkriptParser.ParseResult;
+import ch.njol.skript.lang.function.Function;
+import ch.njol.skript.lang.function.FunctionCache;
 import ch.njol.skript.lang.function.FunctionEvent;
 import ch.njol.skript.lang.function.Functions;
 import ch.njol.skript.lang.function.Signature;
@@ -44,7 +46,10 @@ import java.util.regex.Pattern;
 @Description({
 	"Functions are structures that can be executed with arguments/parameters to run code.",
 	"They can also return a value to the trigger that is executing the function.",
-	"Note that local functions come before global functions execution"
+	"Note that local functions come before global functions execution",
+	"Cached functions remember their results for the arguments they were called with, and return them again when called with the same arguments. "
+		+ "They should only be used for functions that always return the same result for the same arguments, and don't do anything else. "
+		+ "How many results are kept and for how long can be changed in the config."
 })
 @Examples({
 	"function sayMessage(message: text):",
@@ -54,20 +59,25 @@ import java.util.regex.Pattern;
 	"\treturn {_amount} of apple",
 	"",
 	"function getPoints(p: player) returns number:",
-	"\treturn {points::%{_p}%}"
+	"\treturn {points::%{_p}%}",
+	"",
+	"cached function fibonacci(n: integer) :: integer:",
+	"\tif {_n} <= 1:",
+	"\t\treturn {_n}",
+	"\treturn fibonacci({_n} - 1) + fibonacci({_n} - 2)"
 })
-@Since("2.2, 2.7 (local functions)")
+@Since("2.2, 2.7 (local functions), INSERT VERSION (cached functions)")
 public class StructFunction extends Structure {
 
 	public static final Priority PRIORITY = new Priority(400);
 
 	private static final Pattern SIGNATURE_PATTERN =
-			Pattern.compile("^(?:local )?function (" + Functions.functionNamePattern + ")\\((.*?)\\)(?:\\s*(?:::| returns )\\s*(.+))?$");
+			Pattern.compile("^(?:local )?(?:cached )?function (" + Functions.functionNamePattern + ")\\((.*?)\\)(?:\\s*(?:::| returns )\\s*(.+))?$");
 	private static final AtomicBoolean VALIDATE_FUNCTIONS = new AtomicBoolean();
 
 	static {
 		Skript.registerStructure(StructFunction.class,
-			"[:local] function <.+>"
+			"[:local] [:cached] function <.+>"
 		);
 	}
 
@@ -76,12 +86,16 @@ public class StructFunction extends Structure {
 	@Nullable
 	private Signature<?> signature;
 	private boolean local;
+	private boolean cached;
+	@Nullable
+	private Function<?> function;
 
 	@Override
 	public boolean init(Literal<?>[] literals, int matchedPattern, ParseResult parseResult, @Nullable EntryContainer entryContainer) {
 		assert entryContainer != null; // cannot be null for non-simple structures
 		this.source = entryContainer.getSource();
 		local = parseResult.hasTag("local");
+		cached = parseResult.hasTag("cached");
 		return true;
 	}
 
@@ -117,7 +131,9 @@ public class StructFunction extends Structure {
 
 		assert signature != null;
 		// noinspection ConstantConditions - entry container cannot be null as this structure is not simple
-		Functions.loadFunction(parser.getCurrentScript(), source, signature);
+		function = Functions.loadFunction(parser.getCurrentScript(), source, signature);
+		if (function != null && cached)
+			function.setCache(FunctionCache.fromConfig());
 
 		parser.deleteCurrentEvent();
 
@@ -138,6 +154,8 @@ public class StructFunction extends Structure {
 	@Override
 	public void unload() {
 		assert signature != null;
+		if (function != null && function.getCache() != null)
+			Skript.debug("Unloading " + function + " with " + function.getCache());
 		Functions.unregisterFunction(signature);
 		VALIDATE_FUNCTIONS.set(true);
 	}
@@ -93,6 +93,11 @@ public class StructVariables extends Structure {
 			this.variables = ImmutableList.copyOf(variables);
 		}
 
+		/**
+		 * @deprecated Type hints of variables are resolved when they are parsed,
+		 * see {@link ch.njol.skript.lang.VariableString#hasDefaultVariable(DefaultVariables)}.
+		 */
+		@Deprecated
 		public void add(String variable, Class<?>... hints) {
 			if (hints == null || hints.length == 0)
 				return;
@@ -104,10 +109,18 @@ public class StructVariables extends Structure {
 			this.hints.getFirst().put(variable, hints);
 		}
 
+		/**
+		 * @deprecated See {@link #add(String, Class[])}.
+		 */
+		@Deprecated
 		public void enterScope() {
 			hints.push(new HashMap<>());
 		}
 
+		/**
+		 * @deprecated See {@link #add(String, Class[])}.
+		 */
+		@Deprecated
 		public void exitScope() {
 			hints.pop();
 		}
@@ -118,8 +131,10 @@ public class StructVariables extends Structure {
 		 *
 		 * @param variable The variable string of a variable.
 		 * @return type hints of a variable if found otherwise null.
+		 * @deprecated See {@link #add(String, Class[])}.
 		 */
 		@Nullable
+		@Deprecated
 		public Class<?>[] get(String variable) {
 			for (Map<String, Class<?>[]> map : hints) {
 				Class<?>[] hints = map.get(variable);
@@ -0,0 +1,403 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.util;
+
+import ch.njol.skript.Skript;
+import ch.njol.skript.SkriptConfig;
+import ch.njol.skript.aliases.ItemType;
+import ch.njol.skript.bukkitutil.WorldUtils;
+import ch.njol.skript.util.Timespan.TimePeriod;
+import io.papermc.lib.PaperLib;
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Changes the blocks of a large region over several ticks, so that the server doesn't stall while doing so.
+ * <p>
+ * The region is processed chunk by chunk, and all changes that are queued share a per-tick time budget,
+ * set by {@link SkriptConfig#bulkBlockChangeBudget}. Blocks whose neighbours are all changed as well are set
+ * without applying physics, so that changing a block does not cause updates of neighbours that are about to be changed.
+ * The other blocks, on the boundary of the changed blocks, are set with physics once the rest of their chunk is done,
+ * like setting a single block would, so that e.g. sand falls and water flows into a cleared region.
+ * <p>
+ * Chunks that aren't loaded are loaded asynchronously on Paper, and the change waits until they are,
+ * holding back later changes in the queue as well. On other servers they are loaded synchronously.
+ * Chunks are kept loaded with a plugin chunk ticket while they are being changed.
+ * <p>
+ * Changes are processed in the order they were started, and may only be started from the main thread.
+ */
+public class BulkBlockChange {
+
+	/**
+	 * The amount of blocks that are changed between checks of the time budget.
+	 */
+	private static final int BUDGET_CHECK_INTERVAL = 256;
+
+	/**
+	 * The offsets of the six blocks adjacent to a block.
+	 */
+	private static final int[][] NEIGHBOURS = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+
+	private static final Deque<BulkBlockChange> queue = new ArrayDeque<>();
+
+	@Nullable
+	private static Task task;
+
+	private final World world;
+	private final int minX, minY, minZ, maxX, maxY, maxZ;
+	private final int minWorldY, maxWorldY;
+
+	@Nullable
+	private final Location center;
+	private final double radiusSquared;
+
+	private final ItemType @Nullable [] filter;
+	private final Object replacement;
+
+	private final long total;
+	private long processed;
+
+	private final int minChunkX, maxChunkZ;
+	private int chunkX, chunkZ;
+	private int x, y, z;
+	private int chunkMinX, chunkMaxX, chunkMinZ, chunkMaxZ;
+	private boolean inChunk;
+
+	/**
+	 * The pending load of the current chunk, if it isn't loaded yet.
+	 */
+	@Nullable
+	private CompletableFuture<Chunk> chunkLoad;
+
+	/**
+	 * The blocks of the current chunk on the boundary of the changed blocks,
+	 * to be set with physics once all other blocks of the chunk have been set.
+	 */
+	private final List<Block> boundary = new ArrayList<>();
+	private int boundaryIndex;
+
+	private boolean done;
+	private final List<Runnable> completionListeners = new ArrayList<>(1);
+
+	private BulkBlockChange(World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ,
+							@Nullable Location center, double radius,
+							ItemType @Nullable [] filter, Object replacement) {
+		assert replacement instanceof ItemType || replacement instanceof BlockData : replacement;
+		this.world = world;
+		this.minX = minX;
+		this.minY = Math.max(minY, WorldUtils.getWorldMinHeight(world));
+		this.minZ = minZ;
+		this.maxX = maxX;
+		this.maxY = Math.min(maxY, world.getMaxHeight() - 1);
+		this.maxZ = maxZ;
+		this.minWorldY = WorldUtils.getWorldMinHeight(world);
+		this.maxWorldY = world.getMaxHeight() - 1;
+		this.center = center;
+		this.radiusSquared = radius * radius * Skript.EPSILON_MULT;
+		this.filter = filter;
+		this.replacement = replacement;
+
+		this.total = this.maxY < this.minY || maxX < minX || maxZ < minZ ? 0
+			: (long) (maxX - minX + 1) * (this.maxY - this.minY + 1) * (maxZ - minZ + 1);
+		this.minChunkX = minX >> 4;
+		this.maxChunkZ = maxZ >> 4;
+		this.chunkX = minChunkX;
+		this.chunkZ = minZ >> 4;
+	}
+
+	/**
+	 * Creates a change of all blocks between the two given locations, inclusive.
+	 *
+	 * @param filter The types of blocks to change, or null to change all blocks
+	 * @param replacement An {@link ItemType} or {@link BlockData} to change the blocks to
+	 */
+	public static BulkBlockChange cuboid(Location first, Location second, ItemType @Nullable [] filter, Object replacement) {
+		World world = first.getWorld();
+		if (world == null || world != second.getWorld())
+			throw new IllegalArgumentException("Locations must be in the same world");
+		return new BulkBlockChange(world,
+			Math.min(first.getBlockX(), second.getBlockX()),
+			Math.min(first.getBlockY(), second.getBlockY()),
+			Math.min(first.getBlockZ(), second.getBlockZ()),
+			Math.max(first.getBlockX(), second.getBlockX()),
+			Math.max(first.getBlockY(), second.getBlockY()),
+			Math.max(first.getBlockZ(), second.getBlockZ()),
+			null, 0, filter, replacement);
+	}
+
+	/**
+	 * Creates a change of all blocks within the given radius of the center,
+	 * which are the same blocks as the ones of a {@link BlockSphereIterator}.
+	 *
+	 * @param filter The types of blocks to change, or null to change all blocks
+	 * @param replacement An {@link ItemType} or {@link BlockData} to change the blocks to
+	 */
+	public static BulkBlockChange sphere(Location center, double radius, ItemType @Nullable [] filter, Object replacement) {
+		World world = center.getWorld();
+		if (world == null)
+			throw new IllegalArgumentException("The center must have a world");
+		double extent = radius + 0.5001;
+		return new BulkBlockChange(world,
+			(int) Math.ceil(center.getX() - extent), (int) Math.ceil(center.getY() - extent), (int) Math.ceil(center.getZ() - extent),
+			(int) Math.floor(center.getX() + extent), (int) Math.floor(center.getY() + extent), (int) Math.floor(center.getZ() + extent),
+			center.clone(), radius, filter, replacement);
+	}
+
+	/**
+	 * Queues this change, to be processed starting with the next tick.
+	 */
+	public void start() {
+		if (total == 0) {
+			complete();
+			return;
+		}
+		queue.add(this);
+		if (task == null) {
+			task = new Task(Skript.getInstance(), 1, 1) {
+				@Override
+				public void run() {
+					processQueue();
+				}
+			};
+		}
+	}
+
+	/**
+	 * Adds an action to run on the main thread once this change is complete.
+	 * If it already is, the action is run immediately.
+	 */
+	public void whenComplete(Runnable listener) {
+		if (done) {
+			listener.run();
+		} else {
+			completionListeners.add(listener);
+		}
+	}
+
+	/**
+	 * @return Whether all blocks of this change have been processed.
+	 */
+	public boolean isDone() {
+		return done;
+	}
+
+	/**
+	 * @return The fraction of the blocks of this change that have been processed, between 0 and 1.
+	 */
+	public double getProgress() {
+		return total == 0 ? 1 : (double) processed / total;
+	}
+
+	private static void processQueue() {
+		long deadline = System.nanoTime() + SkriptConfig.bulkBlockChangeBudget.value().getAs(TimePeriod.MILLISECOND) * 1_000_000L;
+		while (!queue.isEmpty()) {
+			BulkBlockChange change = queue.peek();
+			if (!change.process(deadline))
+				return;
+			queue.poll();
+			change.complete();
+			if (System.nanoTime() >= deadline)
+				return;
+		}
+		Task task = BulkBlockChange.task;
+		if (task != null)
+			task.cancel();
+		BulkBlockChange.task = null;
+	}
+
+	/**
+	 * Processes the blocks of this change, one chunk at a time, until the deadline is reached.
+	 *
+	 * @return Whether all blocks have been processed.
+	 */
+	private boolean process(long deadline) {
+		int maxChunkX = maxX >> 4;
+		int count = 0;
+		while (chunkZ <= maxChunkZ) {
+			if (!inChunk) {
+				chunkMinX = Math.max(minX, chunkX << 4);
+				chunkMaxX = Math.min(maxX, (chunkX << 4) + 15);
+				chunkMinZ = Math.max(minZ, chunkZ << 4);
+				chunkMaxZ = Math.min(maxZ, (chunkZ << 4) + 15);
+				x = chunkMinX;
+				y = minY;
+				z = chunkMinZ;
+				if (!intersectsSphere()) { // skip the whole chunk
+					processed += (long) (chunkMaxX - chunkMinX + 1) * (maxY - minY + 1) * (chunkMaxZ - chunkMinZ + 1);
+					y = maxY + 1;
+				} else if (!world.isChunkLoaded(chunkX, chunkZ)) {
+					// Wait for the chunk instead of loading or generating it synchronously
+					CompletableFuture<Chunk> chunkLoad = this.chunkLoad;
+					if (chunkLoad == null || chunkLoad.isDone())
+						this.chunkLoad = PaperLib.getChunkAtAsync(world, chunkX, chunkZ);
+					return false;
+				} else {
+					world.addPluginChunkTicket(chunkX, chunkZ, Skript.getInstance());
+				}
+				chunkLoad = null;
+				inChunk = true;
+			}
+
+			while (y <= maxY) {
+				change(x, y, z);
+				processed++;
+				if (++x > chunkMaxX) {
+					x = chunkMinX;
+					if (++z > chunkMaxZ) {
+						z = chunkMinZ;
+						y++;
+					}
+				}
+				if (++count % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline)
+					return false;
+			}
+
+			while (boundaryIndex < boundary.size()) {
+				set(boundary.get(boundaryIndex++), true);
+				if (++count % BUDGET_CHECK_INTERVAL == 0 && System.nanoTime() >= deadline)
+					return false;
+			}
+			boundary.clear();
+			boundaryIndex = 0;
+
+			world.removePluginChunkTicket(chunkX, chunkZ, Skript.getInstance());
+			inChunk = false;
+			if (++chunkX > maxChunkX) {
+				chunkX = minChunkX;
+				chunkZ++;
+			}
+			if (chunkZ <= maxChunkZ && System.nanoTime() >= deadline)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return Whether the column of the current chunk may contain blocks of the sphere, if this change is a sphere.
+	 */
+	private boolean intersectsSphere() {
+		Location center = this.center;
+		if (center == null)
+			return true;
+		double dx = Math.max(0, Math.max(chunkMinX + 0.5 - center.getX(), center.getX() - chunkMaxX - 0.5));
+		double dz = Math.max(0, Math.max(chunkMinZ + 0.5 - center.getZ(), center.getZ() - chunkMaxZ - 0.5));
+		return dx * dx + dz * dz < radiusSquared;
+	}
+
+	/**
+	 * @return Whether the block at the given coordinates is part of the region of this change,
+	 * regardless of the filter.
+	 */
+	private boolean isInRegion(int x, int y, int z) {
+		if (x < minX || x > maxX || y < minY || y > maxY || z < minZ || z > maxZ)
+			return false;
+		Location center = this.center;
+		if (center == null)
+			return true;
+		double dx = x + 0.5 - center.getX(), dy = y + 0.5 - center.getY(), dz = z + 0.5 - center.getZ();
+		return dx * dx + dy * dy + dz * dz < radiusSquared;
+	}
+
+	private boolean matchesFilter(Block block) {
+		ItemType[] filter = this.filter;
+		if (filter == null)
+			return true;
+		for (ItemType type : filter) {
+			if (type.isOfType(block))
+				return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Checks whether any neighbour of the given block to be changed is not changed by this change,
+	 * in which case the block has to be set with physics.
+	 * Neighbours that already are of the replacement are treated as changed,
+	 * as are neighbours outside the world, which have nothing to update.
+	 */
+	private boolean isBoundary(int x, int y, int z) {
+		for (int i = 0; i < 6; i++) {
+			int nx = x + NEIGHBOURS[i][0], ny = y + NEIGHBOURS[i][1], nz = z + NEIGHBOURS[i][2];
+			if (ny < minWorldY || ny > maxWorldY)
+				continue;
+			if (!isInRegion(nx, ny, nz))
+				return true;
+			if (filter == null)
+				continue;
+			// Don't load other chunks just to look at the neighbour
+			if (((nx >> 4) != chunkX || (nz >> 4) != chunkZ) && !world.isChunkLoaded(nx >> 4, nz >> 4))
+				return true;
+			Block neighbour = world.getBlockAt(nx, ny, nz);
+			if (!matchesFilter(neighbour) && !isReplacement(neighbour))
+				return true;
+		}
+		return false;
+	}
+
+	private boolean isReplacement(Block block) {
+		if (replacement instanceof BlockData)
+			return block.getBlockData().equals(replacement);
+		return ((ItemType) replacement).isOfType(block);
+	}
+
+	private void change(int x, int y, int z) {
+		if (center != null && !isInRegion(x, y, z))
+			return;
+		Block block = world.getBlockAt(x, y, z);
+		if (!matchesFilter(block))
+			return;
+		if (isBoundary(x, y, z)) {
+			boundary.add(block);
+		} else {
+			set(block, false);
+		}
+	}
+
+	private void set(Block block, boolean applyPhysics) {
+		if (replacement instanceof BlockData) {
+			block.setBlockData((BlockData) replacement, applyPhysics);
+		} else {
+			((ItemType) replacement).setBlock(block, applyPhysics);
+		}
+	}
+
+	private void complete() {
+		done = true;
+		processed = total;
+		for (Runnable listener : completionListeners) {
+			try {
+				listener.run();
+			} catch (Exception e) {
+				Skript.exception(e, "Error while completing a bulk block change");
+			}
+		}
+		completionListeners.clear();
+	}
+
+}
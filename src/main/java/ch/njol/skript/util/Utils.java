@@ -18,10 +18,13 @@
  */
 package ch.njol.skript.util;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -161,6 +164,14 @@ public abstract class Utils {
 //		return new AmountResponse(s);
 //	}
 
+	/**
+	 * The path of the class index within a plugin's jar file. Each line is the name of a class file entry of the jar,
+	 * prefixed with {@link #CLASS_INDEX_INITIALIZER} if the class declares a static initializer.
+	 * The index is generated at build time, and saves scanning the jar on startup.
+	 */
+	public static final String CLASS_INDEX = "META-INF/skript/classes.idx";
+	public static final char CLASS_INDEX_INITIALIZER = '+';
+
 	/**
 	 * Loads classes of the plugin by package. Useful for registering many syntax elements like Skript does it.
 	 * 
@@ -171,6 +182,23 @@ public abstract class Utils {
 	 * @return This SkriptAddon
 	 */
 	public static Class<?>[] getClasses(Plugin plugin, String basePackage, String... subPackages) throws IOException {
+		return getClasses(plugin, false, basePackage, subPackages);
+	}
+
+	/**
+	 * Loads classes of the plugin by package. Useful for registering many syntax elements like Skript does it.
+	 * <p>
+	 * If the plugin's jar contains a {@link #CLASS_INDEX class index}, it is used instead of scanning the jar's entries.
+	 * 
+	 * @param initializersOnly Whether to only load classes that declare a static initializer, if the jar has a class index.
+	 *            Other classes can't register anything when loaded, and are left for the JVM to load once they're needed.
+	 * @param basePackage The base package to add to all sub packages, e.g. <tt>"ch.njol.skript"</tt>.
+	 * @param subPackages Which subpackages of the base package should be loaded, e.g. <tt>"expressions", "conditions", "effects"</tt>. Subpackages of these packages will be loaded
+	 *            as well. Use an empty array to load all subpackages of the base package.
+	 * @throws IOException If some error occurred attempting to read the plugin's jar file.
+	 * @return The loaded classes
+	 */
+	public static Class<?>[] getClasses(Plugin plugin, boolean initializersOnly, String basePackage, String... subPackages) throws IOException {
 		assert subPackages != null;
 		JarFile jar = new JarFile(getFile(plugin));
 		for (int i = 0; i < subPackages.length; i++)
@@ -180,22 +208,27 @@ public abstract class Utils {
 		try {
 			List<String> classNames = new ArrayList<>();
 
-			for (JarEntry e : new EnumerationIterable<>(jar.entries())) {
-				if (e.getName().startsWith(basePackage) && e.getName().endsWith(".class") && !e.getName().endsWith("package-info.class")) {
-					boolean load = subPackages.length == 0;
-					for (String sub : subPackages) {
-						if (e.getName().startsWith(sub, basePackage.length())) {
-							load = true;
-							break;
-						}
+			JarEntry index = jar.getJarEntry(CLASS_INDEX);
+			if (index != null) {
+				// the index is already sorted
+				try (BufferedReader reader = new BufferedReader(new InputStreamReader(jar.getInputStream(index), StandardCharsets.UTF_8))) {
+					String line;
+					while ((line = reader.readLine()) != null) {
+						boolean initializer = !line.isEmpty() && line.charAt(0) == CLASS_INDEX_INITIALIZER;
+						if (initializer)
+							line = line.substring(1);
+						if ((initializer || !initializersOnly) && isClassInPackage(line, basePackage, subPackages))
+							classNames.add(line.replace('/', '.').substring(0, line.length() - ".class".length()));
 					}
-
-					if (load)
+				}
+			} else {
+				for (JarEntry e : new EnumerationIterable<>(jar.entries())) {
+					if (isClassInPackage(e.getName(), basePackage, subPackages))
 						classNames.add(e.getName().replace('/', '.').substring(0, e.getName().length() - ".class".length()));
 				}
-			}
 
-			classNames.sort(String::compareToIgnoreCase);
+				classNames.sort(String::compareToIgnoreCase);
+			}
 
 			for (String c : classNames) {
 				try {
@@ -214,6 +247,18 @@ public abstract class Utils {
 		return classes.toArray(new Class<?>[classes.size()]);
 	}
 
+	private static boolean isClassInPackage(String entry, String basePackage, String[] subPackages) {
+		if (!entry.startsWith(basePackage) || !entry.endsWith(".class") || entry.endsWith("package-info.class"))
+			return false;
+		if (subPackages.length == 0)
+			return true;
+		for (String sub : subPackages) {
+			if (entry.startsWith(sub, basePackage.length()))
+				return true;
+		}
+		return false;
+	}
+
 	/**
 	 * The first invocation of this method uses reflection to invoke the protected method {@link JavaPlugin#getFile()} to get the plugin's jar file.
 	 * 
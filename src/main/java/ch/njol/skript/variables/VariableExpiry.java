@@ -0,0 +1,374 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import ch.njol.skript.lang.Variable;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of the expiry times of global variables.
+ * <p>
+ * The deadlines themselves are kept in a concurrent map, so that reading
+ * a variable can cheaply check whether it has expired. Scheduling is done
+ * in a hierarchical timing wheel: each level has {@link #SLOTS} slots,
+ * and each slot of a level spans all slots of the level below it. Entries
+ * are cascaded down the levels as time advances, so that both scheduling
+ * and advancing are constant time per entry.
+ * <p>
+ * Cancelled or rescheduled entries are not removed from the wheel, instead
+ * they are discarded when their slot is reached.
+ */
+final class VariableExpiry {
+
+	/**
+	 * The amount of bits used to index the slots of a single level.
+	 */
+	private static final int SLOT_BITS = 6;
+
+	/**
+	 * The amount of slots in a single level.
+	 */
+	private static final int SLOTS = 1 << SLOT_BITS;
+
+	/**
+	 * The amount of levels in the wheel. Deadlines beyond the range of the
+	 * highest level are placed in its last slot, and rescheduled once reached.
+	 */
+	private static final int LEVELS = 5;
+
+	/**
+	 * The duration of a single tick of the wheel, in milliseconds.
+	 */
+	private final long tickMillis;
+
+	/**
+	 * The deadlines of all variables with an expiry, indexed by variable name.
+	 */
+	private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+
+	/**
+	 * The deadlines of list variables with an expiry, indexed by the list's name without the trailing {@code *},
+	 * so that the lists containing a variable can be matched against the start of its name.
+	 */
+	private final Map<String, Long> listDeadlines = new ConcurrentHashMap<>();
+
+	/**
+	 * The amount of list variables with an expiry up to which {@link #getExpiredList(String, long)} compares them
+	 * with the name directly, instead of looking up each list the name could be contained in.
+	 */
+	private static final int MAX_SCANNED_LISTS = 16;
+
+	/**
+	 * The slots of the wheel, indexed by level and slot.
+	 * Must be accessed while synchronized on this object.
+	 */
+	private final List<Entry>[][] wheel;
+
+	/**
+	 * The tick the wheel has advanced to.
+	 */
+	private long currentTick;
+
+	/**
+	 * Whether the deadlines have changed since they were last saved.
+	 *
+	 * @see #clearChanged()
+	 */
+	private volatile boolean changed;
+
+	/**
+	 * Creates a new wheel starting at the given time.
+	 *
+	 * @param tickMillis the duration of a tick, in milliseconds.
+	 * @param now the current time, in milliseconds.
+	 */
+	@SuppressWarnings("unchecked")
+	VariableExpiry(long tickMillis, long now) {
+		assert tickMillis > 0;
+		this.tickMillis = tickMillis;
+		this.currentTick = now / tickMillis;
+		this.wheel = new List[LEVELS][SLOTS];
+	}
+
+	/**
+	 * @return whether no variable currently has an expiry.
+	 */
+	boolean isEmpty() {
+		return deadlines.isEmpty();
+	}
+
+	/**
+	 * @param name the variable name.
+	 * @return the deadline of the given variable in milliseconds,
+	 * or {@code null} if it doesn't expire.
+	 */
+	@Nullable
+	Long getDeadline(String name) {
+		return deadlines.get(name);
+	}
+
+	/**
+	 * Checks whether the given variable has expired, without removing it.
+	 * A variable has also expired if any list variable containing it has expired,
+	 * e.g. {@code a::b::c} has expired if {@code a::*} or {@code a::b::*} has.
+	 *
+	 * @param name the variable name.
+	 * @param now the current time, in milliseconds.
+	 * @return whether the variable or any list containing it has an expiry that lies in the past.
+	 */
+	boolean isExpired(String name, long now) {
+		if (deadlines.isEmpty())
+			return false;
+		return isPast(deadlines.get(name), now) || getExpiredList(name, now) != null;
+	}
+
+	/**
+	 * Finds the outermost expired list variable containing the given variable.
+	 *
+	 * @param name the variable name.
+	 * @param now the current time, in milliseconds.
+	 * @return the name of the outermost list variable containing the variable whose expiry lies in the past,
+	 * or {@code null} if there is none. The variable itself is not considered.
+	 */
+	@Nullable
+	String getExpiredList(String name, long now) {
+		if (listDeadlines.isEmpty())
+			return null;
+
+		if (listDeadlines.size() <= MAX_SCANNED_LISTS) {
+			String outermost = null;
+			for (Map.Entry<String, Long> entry : listDeadlines.entrySet()) {
+				String prefix = entry.getKey();
+				if (isContainedIn(name, prefix) && isPast(entry.getValue(), now)
+						&& (outermost == null || prefix.length() < outermost.length()))
+					outermost = prefix;
+			}
+			return outermost == null ? null : outermost + "*";
+		}
+
+		int separatorLength = Variable.SEPARATOR.length();
+		int index = name.indexOf(Variable.SEPARATOR);
+		while (index != -1) {
+			int end = index + separatorLength;
+			if (end < name.length() && !isListItself(name, end)) {
+				String prefix = name.substring(0, end);
+				if (isPast(listDeadlines.get(prefix), now))
+					return prefix + "*";
+			}
+			index = name.indexOf(Variable.SEPARATOR, end);
+		}
+		return null;
+	}
+
+	/**
+	 * @param name the variable name.
+	 * @param prefix the name of a list variable without the trailing {@code *}.
+	 * @return whether the variable is contained in the list, directly or in a nested list.
+	 */
+	private static boolean isContainedIn(String name, String prefix) {
+		return name.length() > prefix.length() && name.startsWith(prefix) && !isListItself(name, prefix.length());
+	}
+
+	/**
+	 * @return whether the given name ends with {@code *} right after the given index, i.e. is the list ending there.
+	 */
+	private static boolean isListItself(String name, int index) {
+		return index == name.length() - 1 && name.charAt(index) == '*';
+	}
+
+	private static boolean isPast(@Nullable Long deadline, long now) {
+		return deadline != null && deadline <= now;
+	}
+
+	/**
+	 * @return the name of the given list variable without the trailing {@code *},
+	 * or {@code null} if the name isn't a list variable.
+	 */
+	@Nullable
+	private static String getListPrefix(String name) {
+		if (!name.endsWith(Variable.SEPARATOR + "*"))
+			return null;
+		return name.substring(0, name.length() - 1);
+	}
+
+	/**
+	 * @return an unmodifiable view of all deadlines, indexed by variable name.
+	 */
+	Map<String, Long> getDeadlines() {
+		return Collections.unmodifiableMap(deadlines);
+	}
+
+	/**
+	 * Resets whether the deadlines have changed. Should be called right before
+	 * the {@link #getDeadlines() deadlines} are saved, so that changes made
+	 * while saving are saved the next time.
+	 *
+	 * @return whether the deadlines have changed since this was last called.
+	 */
+	boolean clearChanged() {
+		boolean changed = this.changed;
+		this.changed = false;
+		return changed;
+	}
+
+	/**
+	 * Schedules the given variable to expire at the given deadline,
+	 * replacing any previous expiry.
+	 *
+	 * @param name the variable name.
+	 * @param deadline the deadline, in milliseconds.
+	 */
+	synchronized void schedule(String name, long deadline) {
+		deadlines.put(name, deadline);
+		String prefix = getListPrefix(name);
+		if (prefix != null)
+			listDeadlines.put(prefix, deadline);
+		changed = true;
+		insert(new Entry(name, deadline));
+	}
+
+	/**
+	 * Removes the expiry of the given variable.
+	 *
+	 * @param name the variable name.
+	 * @return whether the variable had an expiry.
+	 */
+	boolean cancel(String name) {
+		if (deadlines.isEmpty() || deadlines.remove(name) == null)
+			return false;
+		String prefix = getListPrefix(name);
+		if (prefix != null)
+			listDeadlines.remove(prefix);
+		changed = true;
+		return true;
+	}
+
+	/**
+	 * Removes the expiries of all variables whose name starts with the given prefix,
+	 * e.g. the elements of a deleted list variable.
+	 *
+	 * @param prefix the prefix of the variable names.
+	 */
+	void cancelAll(String prefix) {
+		if (deadlines.isEmpty())
+			return;
+		if (deadlines.keySet().removeIf(name -> name.startsWith(prefix)))
+			changed = true;
+		listDeadlines.keySet().removeIf(name -> name.startsWith(prefix));
+	}
+
+	/**
+	 * Advances the wheel to the given time and collects all expired variables.
+	 * <p>
+	 * The expiry of the collected variables is kept until they are
+	 * actually deleted, so that they are not visible in the meantime.
+	 *
+	 * @param now the current time, in milliseconds.
+	 * @param expired the collection to add the names of expired variables to.
+	 */
+	synchronized void advance(long now, ArrayDeque<String> expired) {
+		long targetTick = now / tickMillis;
+		while (currentTick <= targetTick) {
+			int slot = (int) (currentTick & (SLOTS - 1));
+
+			// Cascade the higher levels down when the lower levels wrap around, highest level first
+			if (slot == 0) {
+				int highestLevel = 1;
+				while (highestLevel < LEVELS - 1
+						&& ((currentTick >>> (highestLevel * SLOT_BITS)) & (SLOTS - 1)) == 0)
+					highestLevel++;
+				for (int level = highestLevel; level > 0; level--) {
+					int higherSlot = (int) ((currentTick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+					List<Entry> entries = wheel[level][higherSlot];
+					wheel[level][higherSlot] = null;
+					if (entries != null) {
+						for (Entry entry : entries)
+							insert(entry);
+					}
+				}
+			}
+
+			List<Entry> entries = wheel[0][slot];
+			wheel[0][slot] = null;
+			if (entries != null) {
+				for (Entry entry : entries) {
+					Long deadline = deadlines.get(entry.name);
+					if (deadline == null || deadline != entry.deadline)
+						continue; // cancelled or rescheduled
+					if (deadline > now) {
+						insert(entry); // deadline within the current tick
+						continue;
+					}
+					expired.add(entry.name);
+				}
+			}
+
+			if (currentTick == targetTick)
+				break;
+			currentTick++;
+		}
+	}
+
+	/**
+	 * Inserts an entry into the level and slot matching its deadline.
+	 * Must be called while synchronized on this object.
+	 */
+	private void insert(Entry entry) {
+		long tick = Math.max(entry.deadline / tickMillis, currentTick);
+		long delta = tick - currentTick;
+
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << ((level + 1) * SLOT_BITS))
+			level++;
+
+		// Beyond the range of the wheel, park in the furthest slot
+		if (delta >= 1L << (LEVELS * SLOT_BITS))
+			tick = currentTick + (1L << (LEVELS * SLOT_BITS)) - 1;
+
+		int slot = (int) ((tick >>> (level * SLOT_BITS)) & (SLOTS - 1));
+
+		List<Entry> entries = wheel[level][slot];
+		if (entries == null)
+			wheel[level][slot] = entries = new ArrayList<>();
+		entries.add(entry);
+	}
+
+	/**
+	 * A variable name scheduled at a deadline.
+	 */
+	private static final class Entry {
+
+		private final String name;
+		private final long deadline;
+
+		private Entry(String name, long deadline) {
+			this.name = name;
+			this.deadline = deadline;
+		}
+
+	}
+
+}
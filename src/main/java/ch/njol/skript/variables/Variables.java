@@ -29,6 +29,10 @@ import ch.njol.skript.config.SectionNode;
 import ch.njol.skript.lang.Variable;
 import ch.njol.skript.log.SkriptLogger;
 import ch.njol.skript.registrations.Classes;
+import ch.njol.skript.util.Task;
+import ch.njol.skript.util.FileUtils;
+import ch.njol.skript.util.Timespan;
+import ch.njol.skript.util.Timespan.TimePeriod;
 import ch.njol.skript.variables.SerializedVariable.Value;
 import ch.njol.util.Kleenean;
 import ch.njol.util.NonNullPair;
@@ -45,9 +49,15 @@ import org.skriptlang.skript.lang.converter.Converters;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Multimap;
 
+import java.io.File;
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -303,6 +313,20 @@ public class Variables {
 			loadingLoggerThread.interrupt();
 
 			saveThread.start();
+
+			loadExpiries();
+			expiryTask = new Task(Skript.getInstance(), 1, 1) {
+				@Override
+				public void run() {
+					evictExpiredVariables();
+				}
+			};
+			expirySaveTask = new Task(Skript.getInstance(), EXPIRY_SAVE_PERIOD, EXPIRY_SAVE_PERIOD, true) {
+				@Override
+				public void run() {
+					saveExpiries(false);
+				}
+			};
 		}
 		return true;
 	}
@@ -450,6 +474,10 @@ public class Variables {
 
 			return map.getVariable(n);
 		} else {
+			// Expired variables are invisible until they are evicted
+			if (!expiry.isEmpty() && expiry.isExpired(n, System.currentTimeMillis()))
+				return null;
+
 			// Prevent race conditions from returning variables with incorrect values
 			if (!changeQueue.isEmpty()) {
 				// Gets the last VariableChange made
@@ -527,6 +555,20 @@ public class Variables {
 		}
 	}
 
+	/**
+	 * Sets a global variable that will be deleted once the given time to live has passed.
+	 *
+	 * @param name the variable's name.
+	 * @param value the variable's value. Use {@code null} to delete the variable.
+	 * @param timeToLive the time after which the variable expires.
+	 * @see #setExpiry(String, Timespan)
+	 */
+	public static void setVariable(String name, @Nullable Object value, Timespan timeToLive) {
+		setVariable(name, value, null, false);
+		if (value != null)
+			setExpiry(name, timeToLive);
+	}
+
 	/**
 	 * Sets the given global variable name to the given value.
 	 *
@@ -534,6 +576,25 @@ public class Variables {
 	 * @param value the value, or {@code null} to delete the variable.
 	 */
 	static void setVariable(String name, @Nullable Object value) {
+		if (!expiry.isEmpty()) {
+			if (value == null) {
+				// Deleting a variable also removes its expiry, and the expiries of its elements if it is a list
+				if (name.endsWith(Variable.SEPARATOR + "*"))
+					expiry.cancelAll(name.substring(0, name.length() - 1));
+				expiry.cancel(name);
+			} else {
+				// An expired variable that has not been evicted yet is set anew.
+				// If a list containing it has expired, that list is deleted first,
+				//  as evicting it later would delete the new value along with it.
+				long now = System.currentTimeMillis();
+				String expiredList = expiry.getExpiredList(name, now);
+				if (expiredList != null)
+					deleteList(expiredList);
+				if (expiry.isExpired(name, now))
+					expiry.cancel(name);
+			}
+		}
+
 		boolean gotLock = variablesLock.writeLock().tryLock();
 		if (gotLock) {
 			try {
@@ -853,14 +914,261 @@ public class Variables {
 		}
 	}, "Skript variable save thread");
 
+	/**
+	 * The resolution of variable expiry, in milliseconds.
+	 * Expired variables are deleted at most this long after their deadline,
+	 * but they are never visible after it.
+	 */
+	private static final long EXPIRY_TICK_MILLIS = 50;
+
+	/**
+	 * The maximum amount of variables deleted per server tick because they expired,
+	 * so that many variables expiring at once do not stall the server.
+	 * Each element of an expired list variable counts separately.
+	 */
+	private static final int MAX_EVICTIONS_PER_TICK = 1000;
+
+	/**
+	 * How often the expiries of variables are saved if they have changed, in ticks.
+	 */
+	private static final long EXPIRY_SAVE_PERIOD = 30 * 20;
+
+	/**
+	 * The name of the file the expiries of variables are kept in between restarts,
+	 * relative to Skript's data folder.
+	 */
+	private static final String EXPIRIES_FILE = "variable-expiries.csv";
+
+	/**
+	 * The expiry times of global variables.
+	 */
+	static final VariableExpiry expiry = new VariableExpiry(EXPIRY_TICK_MILLIS, System.currentTimeMillis());
+
+	/**
+	 * Names of expired variables that have not been deleted yet.
+	 * Only accessed from the {@link #expiryTask}.
+	 */
+	private static final ArrayDeque<String> EXPIRED_VARIABLES = new ArrayDeque<>();
+
+	/**
+	 * Names of variables that are being deleted because they or a list containing them expired,
+	 * followed by the name of that list itself.
+	 * Only accessed from the {@link #expiryTask}.
+	 */
+	private static final ArrayDeque<String> PENDING_EVICTIONS = new ArrayDeque<>();
+
+	/**
+	 * The task that deletes expired variables every tick.
+	 */
+	@Nullable
+	private static Task expiryTask;
+
+	/**
+	 * The task that saves the expiries of variables periodically,
+	 * so that they are not lost if the server doesn't shut down properly.
+	 */
+	@Nullable
+	private static Task expirySaveTask;
+
+	/**
+	 * Makes the given global variable expire after the given time to live.
+	 * Once expired, the variable is no longer visible and will be deleted
+	 * from memory and from its storage.
+	 * <p>
+	 * Setting a variable keeps its expiry, while deleting it removes the expiry.
+	 * If the given name is a list variable, the whole list will be deleted when it expires.
+	 *
+	 * @param name the variable's name.
+	 * @param timeToLive the time after which the variable expires,
+	 *                      or {@code null} to make the variable never expire.
+	 */
+	public static void setExpiry(String name, @Nullable Timespan timeToLive) {
+		if (caseInsensitiveVariables)
+			name = name.toLowerCase(Locale.ENGLISH);
+
+		if (timeToLive == null) {
+			expiry.cancel(name);
+		} else {
+			expiry.schedule(name, System.currentTimeMillis() + timeToLive.getAs(TimePeriod.MILLISECOND));
+		}
+	}
+
+	/**
+	 * Gets the time left until the given global variable expires.
+	 *
+	 * @param name the variable's name.
+	 * @return the time left, or {@code null} if the variable does not expire.
+	 */
+	@Nullable
+	public static Timespan getTimeToLive(String name) {
+		if (caseInsensitiveVariables)
+			name = name.toLowerCase(Locale.ENGLISH);
+
+		Long deadline = expiry.getDeadline(name);
+		if (deadline == null)
+			return null;
+		return new Timespan(Math.max(deadline - System.currentTimeMillis(), 0));
+	}
+
+	/**
+	 * Deletes expired variables, at most {@link #MAX_EVICTIONS_PER_TICK} at once.
+	 * The elements of expired list variables are deleted over multiple ticks if needed.
+	 * <p>
+	 * Must be called from Bukkit's main thread.
+	 */
+	private static void evictExpiredVariables() {
+		if (expiry.isEmpty() && EXPIRED_VARIABLES.isEmpty() && PENDING_EVICTIONS.isEmpty())
+			return;
+
+		long now = System.currentTimeMillis();
+		expiry.advance(now, EXPIRED_VARIABLES);
+
+		int evictions = 0;
+		while (evictions < MAX_EVICTIONS_PER_TICK) {
+			String name = PENDING_EVICTIONS.poll();
+			if (name != null) {
+				// The expiry of the list may have been changed while its elements were being deleted
+				if (expiry.isExpired(name, now)) {
+					setVariable(name, null);
+					evictions++;
+				}
+				continue;
+			}
+
+			name = EXPIRED_VARIABLES.poll();
+			if (name == null)
+				break;
+
+			// The expiry may have been changed after the variable was collected
+			Long deadline = expiry.getDeadline(name);
+			if (deadline == null || deadline > now)
+				continue;
+
+			if (name.endsWith(Variable.SEPARATOR + "*")) {
+				// Delete the elements of the list first, like deleting the list from a script would
+				try {
+					variablesLock.readLock().lock();
+					Object list = variables.getVariable(name);
+					if (list instanceof TreeMap)
+						collectListElements(name.substring(0, name.length() - 1), (TreeMap<?, ?>) list, PENDING_EVICTIONS);
+				} finally {
+					variablesLock.readLock().unlock();
+				}
+				PENDING_EVICTIONS.add(name);
+				continue;
+			}
+			setVariable(name, null);
+			evictions++;
+		}
+	}
+
+	/**
+	 * Deletes the given list variable with all of its elements, like deleting the list from a script would.
+	 *
+	 * @param name the name of the list variable, ending with {@code *}.
+	 */
+	private static void deleteList(String name) {
+		List<String> elements = new ArrayList<>();
+		try {
+			variablesLock.readLock().lock();
+			Object list = variables.getVariable(name);
+			if (list instanceof TreeMap)
+				collectListElements(name.substring(0, name.length() - 1), (TreeMap<?, ?>) list, elements);
+		} finally {
+			variablesLock.readLock().unlock();
+		}
+		for (String element : elements)
+			setVariable(element, null);
+		setVariable(name, null);
+	}
+
+	/**
+	 * Collects the names of all elements of a list variable, including the elements of nested lists.
+	 *
+	 * @param prefix the name of the list, without the trailing {@code *}.
+	 * @param list the tree of the list variable.
+	 * @param elements the collection to add the element names to.
+	 */
+	private static void collectListElements(String prefix, TreeMap<?, ?> list, Collection<String> elements) {
+		for (Entry<?, ?> entry : list.entrySet()) {
+			if (entry.getKey() == null)
+				continue;
+			String name = prefix + entry.getKey();
+			if (entry.getValue() instanceof TreeMap)
+				collectListElements(name + Variable.SEPARATOR, (TreeMap<?, ?>) entry.getValue(), elements);
+			elements.add(name);
+		}
+	}
+
+	/**
+	 * Loads the expiries of variables saved by {@link #saveExpiries(boolean)}.
+	 * Variables that expired while the server was offline are deleted on the next tick.
+	 */
+	private static void loadExpiries() {
+		File file = new File(Skript.getInstance().getDataFolder(), EXPIRIES_FILE);
+		if (!file.exists())
+			return;
+
+		try {
+			for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+				int separator = line.indexOf(',');
+				if (separator == -1)
+					continue;
+				try {
+					long deadline = Long.parseLong(line.substring(0, separator));
+					expiry.schedule(line.substring(separator + 1), deadline);
+				} catch (NumberFormatException e) {
+					Skript.warning("Invalid line in " + EXPIRIES_FILE + ": " + line);
+				}
+			}
+		} catch (IOException e) {
+			Skript.exception(e, "Failed to load the expiries of variables from " + EXPIRIES_FILE);
+		}
+	}
+
+	/**
+	 * Saves the expiries of all variables, so that they persist between restarts.
+	 *
+	 * @param force whether to save the expiries even if they haven't changed since the last save.
+	 */
+	private static synchronized void saveExpiries(boolean force) {
+		if (!expiry.clearChanged() && !force)
+			return;
+
+		File file = new File(Skript.getInstance().getDataFolder(), EXPIRIES_FILE);
+		try {
+			if (expiry.isEmpty()) {
+				Files.deleteIfExists(file.toPath());
+				return;
+			}
+
+			List<String> lines = new ArrayList<>();
+			for (Entry<String, Long> entry : expiry.getDeadlines().entrySet())
+				lines.add(entry.getValue() + "," + entry.getKey());
+
+			// Write to a temporary file first, so that the old expiries are kept if writing fails
+			File tempFile = new File(file.getParentFile(), EXPIRIES_FILE + ".temp");
+			Files.write(tempFile.toPath(), lines, StandardCharsets.UTF_8);
+			FileUtils.move(tempFile, file, true);
+		} catch (IOException e) {
+			Skript.exception(e, "Failed to save the expiries of variables to " + EXPIRIES_FILE);
+		}
+	}
+
 	/**
 	 * Closes the variable systems:
 	 * <ul>
 	 *     <li>Process all changes left in the {@link #changeQueue}.</li>
+	 *     <li>Saves the expiries of variables.</li>
 	 *     <li>Stops the {@link #saveThread}.</li>
 	 * </ul>
 	 */
 	public static void close() {
+		if (expiryTask != null)
+			expiryTask.cancel();
+		if (expirySaveTask != null)
+			expirySaveTask.cancel();
+
 		try { // Ensure that all changes are to save soon
 			variablesLock.writeLock().lock();
 			processChangeQueue();
@@ -868,6 +1176,8 @@ public class Variables {
 			variablesLock.writeLock().unlock();
 		}
 
+		saveExpiries(true);
+
 		// First, make sure all variables are saved
 		while (saveQueue.size() > 0) {
 			try {
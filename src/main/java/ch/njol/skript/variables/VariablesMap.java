@@ -43,6 +43,18 @@ final class VariablesMap {
 		if (s2 == null)
 			return 1;
 
+		// Fast path for the most common list indices, positive integers without leading zeroes,
+		//  which are ordered by length first and then by their digits.
+		int plainLength1 = plainIndexLength(s1);
+		if (plainLength1 != -1) {
+			int plainLength2 = plainIndexLength(s2);
+			if (plainLength2 != -1) {
+				if (plainLength1 != plainLength2)
+					return plainLength1 - plainLength2;
+				return s1.compareTo(s2);
+			}
+		}
+
 		int i = 0;
 		int j = 0;
 
@@ -138,6 +150,33 @@ final class VariablesMap {
 		return 0;
 	};
 
+	/**
+	 * Checks whether the given variable name part is a plain integer index,
+	 * i.e. only consists of digits and has no leading zeroes (except for {@code 0} itself).
+	 * Such indices compare the same in {@link #VARIABLE_NAME_COMPARATOR} as they would numerically.
+	 *
+	 * @param s the variable name part.
+	 * @return the length of the index, or {@code -1} if it is not a plain integer index.
+	 */
+	private static int plainIndexLength(String s) {
+		int length = s.length();
+		if (length == 0)
+			return -1;
+
+		char first = s.charAt(0);
+		if (first == '0')
+			return length == 1 ? 1 : -1;
+		if (first < '1' || first > '9')
+			return -1;
+
+		for (int i = 1; i < length; i++) {
+			char c = s.charAt(i);
+			if (c < '0' || c > '9')
+				return -1;
+		}
+		return length;
+	}
+
 	/**
 	 * The map that stores all non-list variables.
 	 */
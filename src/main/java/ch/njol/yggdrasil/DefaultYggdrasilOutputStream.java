@@ -38,10 +38,22 @@ public final class DefaultYggdrasilOutputStream extends YggdrasilOutputStream {
 		super(yggdrasil);
 		this.out = out;
 		version = yggdrasil.version;
+		writeHeader();
+	}
+	
+	private void writeHeader() throws IOException {
 		writeInt(Yggdrasil.MAGIC_NUMBER);
 		writeShort(version);
 	}
 	
+	@Override
+	public void reset() throws IOException {
+		super.reset();
+		writtenShortStrings.clear();
+		nextShortStringID = 0;
+		writeHeader();
+	}
+	
 	private void write(int b) throws IOException {
 		out.write(b);
 	}
@@ -0,0 +1,210 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.yggdrasil;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.io.NotSerializableException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads and writes the serializable fields of a class, i.e. all non-static and non-transient
+ * fields of the class and its superclasses.
+ * <p>
+ * The fields and their IDs are looked up once per class, and are accessed through method handles
+ * that are resolved on first use. A codec is immutable and thus safe to use from multiple threads.
+ *
+ * @see Fields
+ */
+final class FieldCodec {
+
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+	private static final ClassValue<Object> CODECS = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			try {
+				return new FieldCodec(type);
+			} catch (NotSerializableException e) {
+				return e;
+			}
+		}
+	};
+
+	/**
+	 * Gets the codec of the given class.
+	 *
+	 * @param type The class to get the codec of
+	 * @return The codec of the given class
+	 * @throws NotSerializableException If a field occurs more than once (i.e. if a class has a
+	 *                                  field with the same name as a field in one of its superclasses)
+	 */
+	static FieldCodec of(Class<?> type) throws NotSerializableException {
+		Object codec = CODECS.get(type);
+		if (codec instanceof NotSerializableException) {
+			NotSerializableException exception = new NotSerializableException(((NotSerializableException) codec).getMessage());
+			exception.initCause((NotSerializableException) codec);
+			throw exception;
+		}
+		return (FieldCodec) codec;
+	}
+
+	private final Field[] fields;
+	private final String[] ids;
+	private final boolean[] primitive;
+	private final Collection<Field> fieldCollection;
+
+	/**
+	 * The getters and setters of the fields, created on first use.
+	 */
+	private final MethodHandle[] getters, setters;
+
+	private FieldCodec(Class<?> type) throws NotSerializableException {
+		List<Field> fields = new ArrayList<>();
+		Set<String> ids = new HashSet<>();
+		for (Class<?> superClass = type; superClass != null; superClass = superClass.getSuperclass()) {
+			for (Field field : superClass.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+					continue;
+				String id = Yggdrasil.getID(field);
+				if (!ids.add(id))
+					throw new NotSerializableException(type + "/" + superClass + ": duplicate field id '" + id + "'");
+				field.setAccessible(true);
+				fields.add(field);
+			}
+		}
+
+		this.fields = fields.toArray(new Field[0]);
+		this.ids = new String[this.fields.length];
+		this.primitive = new boolean[this.fields.length];
+		for (int i = 0; i < this.fields.length; i++) {
+			this.ids[i] = Yggdrasil.getID(this.fields[i]);
+			this.primitive[i] = this.fields[i].getType().isPrimitive();
+		}
+		this.fieldCollection = Collections.unmodifiableCollection(Arrays.asList(this.fields));
+		this.getters = new MethodHandle[this.fields.length];
+		this.setters = new MethodHandle[this.fields.length];
+	}
+
+	/**
+	 * @return The amount of serializable fields.
+	 */
+	int size() {
+		return fields.length;
+	}
+
+	/**
+	 * @return All serializable fields, as returned by {@link Fields#getFields(Class)}.
+	 */
+	Collection<Field> getFields() {
+		return fieldCollection;
+	}
+
+	Field getField(int index) {
+		return fields[index];
+	}
+
+	String getID(int index) {
+		return ids[index];
+	}
+
+	boolean isPrimitive(int index) {
+		return primitive[index];
+	}
+
+	/**
+	 * Gets the value of a field, primitives are returned as their wrapper.
+	 *
+	 * @param index The index of the field
+	 * @param object The object to get the value from
+	 * @return The value of the field
+	 */
+	@Nullable
+	Object get(int index, Object object) {
+		try {
+			return getter(index).invokeExact(object);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+
+	/**
+	 * Sets the value of a field, primitives must be given as their wrapper.
+	 *
+	 * @param index The index of the field
+	 * @param object The object whose field should be set
+	 * @param value The new value of the field
+	 * @throws IllegalArgumentException If the value cannot be stored in the field
+	 */
+	void set(int index, Object object, @Nullable Object value) throws IllegalArgumentException {
+		if (value == null && primitive[index])
+			throw new IllegalArgumentException("Cannot set primitive field " + ids[index] + " to null");
+		try {
+			setter(index).invokeExact(object, value);
+		} catch (ClassCastException e) {
+			throw new IllegalArgumentException(e);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new YggdrasilException(t);
+		}
+	}
+
+	private MethodHandle getter(int index) {
+		MethodHandle getter = getters[index];
+		if (getter == null) {
+			try {
+				getter = MethodHandles.lookup().unreflectGetter(fields[index]).asType(GETTER_TYPE);
+			} catch (IllegalAccessException e) {
+				throw new YggdrasilException(e);
+			}
+			getters[index] = getter;
+		}
+		return getter;
+	}
+
+	private MethodHandle setter(int index) {
+		MethodHandle setter = setters[index];
+		if (setter == null) {
+			try {
+				setter = MethodHandles.lookup().unreflectSetter(fields[index]).asType(SETTER_TYPE);
+			} catch (IllegalAccessException e) {
+				throw new YggdrasilException(e);
+			}
+			setters[index] = setter;
+		}
+		return setter;
+	}
+
+}
@@ -27,9 +27,7 @@ import java.io.NotSerializableException;
 import java.io.StreamCorruptedException;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -63,6 +61,12 @@ public final class Fields implements Iterable<FieldContext> {
 			isPrimitiveValue = field.getType().isPrimitive();
 		}
 		
+		FieldContext(String id, @Nullable Object value, boolean isPrimitiveValue) {
+			this.id = id;
+			this.value = value;
+			this.isPrimitiveValue = isPrimitiveValue;
+		}
+		
 		public String getID() {
 			return id;
 		}
@@ -147,6 +151,18 @@ public final class Fields implements Iterable<FieldContext> {
 			}
 		}
 		
+		void setField(Object object, FieldCodec codec, int index, Yggdrasil yggdrasil) throws StreamCorruptedException {
+			Field field = codec.getField(index);
+			if (codec.isPrimitive(index) != isPrimitiveValue)
+				throw new StreamCorruptedException("The field " + id + " of " + field.getDeclaringClass() + " is " + (codec.isPrimitive(index) ? "" : "not ") + "primitive");
+			try {
+				codec.set(index, object, value);
+			} catch (IllegalArgumentException e) {
+				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).incompatibleField(field, this))
+					yggdrasil.incompatibleField(object, field, this);
+			}
+		}
+		
 		@Override
 		public int hashCode() {
 			return id.hashCode();
@@ -192,9 +208,9 @@ public final class Fields implements Iterable<FieldContext> {
 	 */
 	public Fields(Class<?> type, Yggdrasil yggdrasil) throws NotSerializableException {
 		this.yggdrasil = yggdrasil;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
+		FieldCodec codec = FieldCodec.of(type);
+		for (int i = 0; i < codec.size(); i++) {
+			String id = codec.getID(i);
 			fields.put(id, new FieldContext(id));
 		}
 	}
@@ -223,18 +239,13 @@ public final class Fields implements Iterable<FieldContext> {
 		this.yggdrasil = yggdrasil;
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			try {
-				fields.put(Yggdrasil.getID(field), new FieldContext(field, object));
-			} catch (IllegalArgumentException | IllegalAccessException e) {
-				assert false;
-			}
+		FieldCodec codec = FieldCodec.of(type);
+		for (int i = 0; i < codec.size(); i++) {
+			String id = codec.getID(i);
+			fields.put(id, new FieldContext(id, codec.get(i, object), codec.isPrimitive(i)));
 		}
 	}
 	
-	private static final Map<Class<?>, Collection<Field>> cache = new HashMap<>();
-	
 	/**
 	 * Gets all serializable fields of the provided class, including superclasses.
 	 * 
@@ -244,28 +255,7 @@ public final class Fields implements Iterable<FieldContext> {
 	 *                                  field with the same name as a field in one of its superclasses)
 	 */
 	public static Collection<Field> getFields(Class<?> type) throws NotSerializableException {
-		Collection<Field> fields = cache.get(type);
-		if (fields != null)
-			return fields;
-		fields = new ArrayList<>();
-		Set<String> ids = new HashSet<>();
-		for (Class<?> superClass = type; superClass != null; superClass = superClass.getSuperclass()) {
-			Field[] declaredFields = superClass.getDeclaredFields();
-			for (Field field : declaredFields) {
-				int modifiers = field.getModifiers();
-				if (field.isSynthetic() || Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
-					continue;
-				String id = Yggdrasil.getID(field);
-				if (ids.contains(id))
-					throw new NotSerializableException(type + "/" + superClass + ": duplicate field id '" + id + "'");
-				field.setAccessible(true);
-				fields.add(field);
-				ids.add(id);
-			}
-		}
-		fields = Collections.unmodifiableCollection(fields);
-		cache.put(type, fields);
-		return fields;
+		return FieldCodec.of(type).getFields();
 	}
 	
 	/**
@@ -281,15 +271,15 @@ public final class Fields implements Iterable<FieldContext> {
 		Set<FieldContext> excessive = new HashSet<>(fields.values());
 		Class<?> type = object.getClass();
 		assert type != null;
-		for (Field field : getFields(type)) {
-			assert field != null;
-			String id = Yggdrasil.getID(field);
-			FieldContext context = fields.get(id);
+		FieldCodec codec = FieldCodec.of(type);
+		for (int i = 0; i < codec.size(); i++) {
+			FieldContext context = fields.get(codec.getID(i));
 			if (context == null) {
+				Field field = codec.getField(i);
 				if (!(object instanceof YggdrasilRobustSerializable) || !((YggdrasilRobustSerializable) object).missingField(field))
 					yggdrasil.missingField(object, field);
 			} else {
-				context.setField(object, field, yggdrasil);
+				context.setField(object, codec, i, yggdrasil);
 			}
 			excessive.remove(context);
 		}
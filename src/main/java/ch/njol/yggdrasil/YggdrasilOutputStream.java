@@ -163,7 +163,8 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 		} else if (object instanceof YggdrasilExtendedSerializable) {
 			fields = ((YggdrasilExtendedSerializable) object).serialize();
 		} else {
-			fields = new Fields(object, yggdrasil);
+			writeFields(object, type);
+			return;
 		}
 		if (fields.size() > Short.MAX_VALUE)
 			throw new YggdrasilException("Class " + type.getCanonicalName() + " has too many fields (" + fields.size() + ")");
@@ -184,9 +185,44 @@ public abstract class YggdrasilOutputStream implements Flushable, Closeable {
 			writtenObjects.put(object, ~ref);
 	}
 	
+	/**
+	 * Writes the non-transient and non-static fields of an object directly to the stream,
+	 * without collecting them in a {@link Fields} object first.
+	 */
+	private void writeFields(Object object, Class<?> type) throws IOException {
+		FieldCodec codec = FieldCodec.of(type);
+		if (codec.size() > Short.MAX_VALUE)
+			throw new YggdrasilException("Class " + type.getCanonicalName() + " has too many fields (" + codec.size() + ")");
+		
+		writeTag(T_OBJECT);
+		writeObjectType(yggdrasil.getID(type));
+		writeNumFields((short) codec.size());
+		for (int i = 0; i < codec.size(); i++) {
+			writeFieldID(codec.getID(i));
+			Object value = codec.get(i, object);
+			if (codec.isPrimitive(i)) {
+				assert value != null;
+				writePrimitive(value);
+			} else {
+				writeObject(value);
+			}
+		}
+		writeObjectEnd();
+	}
+	
 	private int nextObjectID = 0;
 	private final IdentityHashMap<Object, Integer> writtenObjects = new IdentityHashMap<>();
 	
+	/**
+	 * Resets this stream so that it can be reused to write a new object graph,
+	 * as if it were a newly created stream writing to the same output.
+	 * Objects written before are forgotten, thus will not be written as references anymore.
+	 */
+	public void reset() throws IOException {
+		writtenObjects.clear();
+		nextObjectID = 0;
+	}
+	
 	public final void writeObject(@Nullable Object object) throws IOException {
 		if (object == null) {
 			writeNull();
@@ -20,15 +20,17 @@ package org.skriptlang.skript.lang.arithmetic;
 
 import ch.njol.skript.Skript;
 import ch.njol.skript.SkriptAPIException;
-import ch.njol.util.Pair;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.UnmodifiableView;
+import org.skriptlang.skript.lang.util.TypePairCache;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Collection;
 import java.util.Set;
 import java.util.HashSet;
@@ -38,13 +40,44 @@ import java.util.stream.Collectors;
 public final class Arithmetics {
 
 	private static final Map<Operator, List<OperationInfo<?, ?, ?>>> operations = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Operator, Map<Pair<Class<?>, Class<?>>, OperationInfo<?, ?, ?>>> cachedOperations = Collections.synchronizedMap(new HashMap<>());
+	// the caches are only used once registrations have been closed, so the cached values can't change anymore
+	private static final Map<Operator, TypePairCache<OperationInfo<?, ?, ?>>> cachedOperations = new EnumMap<>(Operator.class);
+	private static final Map<Operator, TypePairCache<OperationInfo<?, ?, ?>>> cachedLookups = new EnumMap<>(Operator.class);
+
+	static {
+		for (Operator operator : Operator.values()) {
+			cachedOperations.put(operator, new TypePairCache<>((left, right) -> getOperationInfo_i(operator, left, right)));
+			cachedLookups.put(operator, new TypePairCache<>((left, right) -> lookupOperationInfo_i(operator, left, right)));
+		}
+	}
 
 	private static final Map<Class<?>, DifferenceInfo<?, ?>> differences = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, DifferenceInfo<?, ?>> cachedDifferences = Collections.synchronizedMap(new HashMap<>());
+	private static final ClassValue<Optional<DifferenceInfo<?, ?>>> cachedDifferences = new ClassValue<Optional<DifferenceInfo<?, ?>>>() {
+		@Override
+		protected Optional<DifferenceInfo<?, ?>> computeValue(Class<?> type) {
+			if (differences.containsKey(type))
+				return Optional.of(differences.get(type));
+			for (Map.Entry<Class<?>, DifferenceInfo<?, ?>> entry : differences.entrySet()) {
+				if (entry.getKey().isAssignableFrom(type))
+					return Optional.of(entry.getValue());
+			}
+			return Optional.empty();
+		}
+	};
 
 	private static final Map<Class<?>, Supplier<?>> defaultValues = Collections.synchronizedMap(new HashMap<>());
-	private static final Map<Class<?>, Supplier<?>> cachedDefaultValues = Collections.synchronizedMap(new HashMap<>());
+	private static final ClassValue<Optional<Supplier<?>>> cachedDefaultValues = new ClassValue<Optional<Supplier<?>>>() {
+		@Override
+		protected Optional<Supplier<?>> computeValue(Class<?> type) {
+			if (defaultValues.containsKey(type))
+				return Optional.of(defaultValues.get(type));
+			for (Map.Entry<Class<?>, Supplier<?>> entry : defaultValues.entrySet()) {
+				if (entry.getKey().isAssignableFrom(type))
+					return Optional.of(entry.getValue());
+			}
+			return Optional.empty();
+		}
+	};
 
 	public static <T> void registerOperation(Operator operator, Class<T> type, Operation<T, T, T> operation) {
 		registerOperation(operator, type, type, type, operation);
@@ -110,23 +143,23 @@ public final class Arithmetics {
 		return null;
 	}
 
-	private static Map<Pair<Class<?>, Class<?>>, OperationInfo<?, ?, ?>> getCachedOperations(Operator operator) {
-		return cachedOperations.computeIfAbsent(operator, o -> Collections.synchronizedMap(new HashMap<>()));
-	}
-
 	@Nullable
 	@SuppressWarnings("unchecked")
 	public static <L, R> OperationInfo<L, R, ?> getOperationInfo(Operator operator, Class<L> leftClass, Class<R> rightClass) {
 		assertIsOperationsDoneLoading();
-		return (OperationInfo<L, R, ?>) getCachedOperations(operator).computeIfAbsent(new Pair<>(leftClass, rightClass), pair ->
-			getOperations(operator).stream()
-				.filter(info -> info.getLeft().isAssignableFrom(leftClass) && info.getRight().isAssignableFrom(rightClass))
-				.reduce((info, info2) -> {
-					if (info2.getLeft() == leftClass && info2.getRight() == rightClass)
-						return info2;
-					return info;
-				})
-				.orElse(null));
+		return (OperationInfo<L, R, ?>) cachedOperations.get(operator).get(leftClass, rightClass);
+	}
+
+	@Nullable
+	private static OperationInfo<?, ?, ?> getOperationInfo_i(Operator operator, Class<?> leftClass, Class<?> rightClass) {
+		return getOperations(operator).stream()
+			.filter(info -> info.getLeft().isAssignableFrom(leftClass) && info.getRight().isAssignableFrom(rightClass))
+			.reduce((info, info2) -> {
+				if (info2.getLeft() == leftClass && info2.getRight() == rightClass)
+					return info2;
+				return info;
+			})
+			.orElse(null);
 	}
 
 	@Nullable
@@ -153,16 +186,19 @@ public final class Arithmetics {
 		OperationInfo<L, R, ?> operationInfo = getOperationInfo(operator, leftClass, rightClass);
 		if (operationInfo != null)
 			return operationInfo;
-		return (OperationInfo<L, R, ?>) getCachedOperations(operator).computeIfAbsent(new Pair<>(leftClass, rightClass), pair -> {
-			for (OperationInfo<?, ?, ?> info : getOperations(operator)) {
-				if (!info.getLeft().isAssignableFrom(leftClass) && !info.getRight().isAssignableFrom(rightClass))
-					continue;
-				OperationInfo<L, R, ?> convertedInfo = info.getConverted(leftClass, rightClass, info.getReturnType());
-				if (convertedInfo != null)
-					return convertedInfo;
-			}
-			return null;
-		});
+		return (OperationInfo<L, R, ?>) cachedLookups.get(operator).get(leftClass, rightClass);
+	}
+
+	@Nullable
+	private static <L, R> OperationInfo<L, R, ?> lookupOperationInfo_i(Operator operator, Class<L> leftClass, Class<R> rightClass) {
+		for (OperationInfo<?, ?, ?> info : getOperations(operator)) {
+			if (!info.getLeft().isAssignableFrom(leftClass) && !info.getRight().isAssignableFrom(rightClass))
+				continue;
+			OperationInfo<L, R, ?> convertedInfo = info.getConverted(leftClass, rightClass, info.getReturnType());
+			if (convertedInfo != null)
+				return convertedInfo;
+		}
+		return null;
 	}
 
 	@SuppressWarnings("unchecked")
@@ -208,15 +244,7 @@ public final class Arithmetics {
 	public static <T> DifferenceInfo<T, ?> getDifferenceInfo(Class<T> type) {
 		if (Skript.isAcceptRegistrations())
 			throw new SkriptAPIException("Differences cannot be retrieved until Skript has finished registrations.");
-		return (DifferenceInfo<T, ?>) cachedDifferences.computeIfAbsent(type, c -> {
-			if (differences.containsKey(type))
-				return differences.get(type);
-			for (Map.Entry<Class<?>, DifferenceInfo<?, ?>> entry : differences.entrySet()) {
-				if (entry.getKey().isAssignableFrom(type))
-					return entry.getValue();
-			}
-			return null;
-		});
+		return (DifferenceInfo<T, ?>) cachedDifferences.get(type).orElse(null);
 	}
 
 	public static <T, R> Operation<T, T, R> getDifference(Class<T> type, Class<R> returnType) {
@@ -252,15 +280,7 @@ public final class Arithmetics {
 	public static <R, T extends R> R getDefaultValue(Class<T> type) {
 		if (Skript.isAcceptRegistrations())
 			throw new SkriptAPIException("Default values cannot be retrieved until Skript has finished registrations.");
-		Supplier<R> supplier = (Supplier<R>) cachedDefaultValues.computeIfAbsent(type, c -> {
-			if (defaultValues.containsKey(type))
-				return defaultValues.get(type);
-			for (Map.Entry<Class<?>, Supplier<?>> entry : defaultValues.entrySet()) {
-				if (entry.getKey().isAssignableFrom(type))
-					return entry.getValue();
-			}
-			return null;
-		});
+		Supplier<R> supplier = (Supplier<R>) cachedDefaultValues.get(type).orElse(null);
 		return supplier == null ? null : supplier.get();
 	}
 
@@ -41,7 +41,7 @@ import java.util.stream.Collectors;
  */
 public final class Script {
 
-	private final Config config;
+	private volatile Config config;
 
 	private final List<Structure> structures;
 
@@ -64,6 +64,15 @@ public final class Script {
 		return config;
 	}
 
+	/**
+	 * Replaces the Config of this Script, after it has been partially reloaded from its changed file.
+	 * @param config The new contents of this Script, which must be read from the same file.
+	 */
+	@ApiStatus.Internal
+	public void setConfig(Config config) {
+		this.config = config;
+	}
+
 	/**
 	 * @return An unmodifiable list of all Structures within this Script.
 	 */
@@ -169,6 +169,18 @@ public abstract class Structure implements SyntaxElement, Debuggable {
 		return true;
 	}
 
+	/**
+	 * Whether {@link #load()} may be called on another thread while Structures of the same priority
+	 *  from other scripts are being loaded, when parallel loading is enabled.
+	 * This requires {@link #load()} to only modify state of this Structure or its script,
+	 *  and to only read global state that is not modified during the load phase.
+	 * Structures of the same script are always loaded in order on the same thread.
+	 * @return Whether this Structure can be loaded in parallel with Structures of other scripts. False by default.
+	 */
+	public boolean canLoadInParallel() {
+		return false;
+	}
+
 	/**
 	 * Called when this structure is unloaded.
 	 */
@@ -0,0 +1,113 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.lang.util;
+
+import ch.njol.skript.Skript;
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+/**
+ * A cache for a single call site that dispatches on the runtime types of two operands,
+ * e.g. a comparison that looks up the comparator of the compared objects' classes.
+ * <p>
+ * Most call sites see the same pair of types every time, so the last resolved pair is remembered
+ * and repeat lookups skip the global registry. Sites that keep seeing different pairs are considered
+ * megamorphic after {@link #MAX_MISSES} misses, and stop replacing the remembered pair.
+ * <p>
+ * The cache is safe to use from multiple threads: the remembered pair is immutable,
+ * so a racing thread either sees it completely or resolves the pair itself.
+ *
+ * @param <V> The type of the resolved values.
+ */
+public final class InlineCache<V> {
+
+	/**
+	 * The amount of misses after which a call site is considered megamorphic.
+	 */
+	private static final int MAX_MISSES = 8;
+
+	// only counted in debug mode
+	private static final LongAdder hits = new LongAdder();
+	private static final LongAdder misses = new LongAdder();
+	private static final LongAdder megamorphic = new LongAdder();
+
+	private final BiFunction<Class<?>, Class<?>, @Nullable V> resolver;
+
+	@Nullable
+	private Entry<V> entry;
+	private int missCount;
+
+	/**
+	 * @param resolver Resolves the value of a pair of types that is not cached, usually from a global registry. May return null.
+	 */
+	public InlineCache(BiFunction<Class<?>, Class<?>, @Nullable V> resolver) {
+		this.resolver = resolver;
+	}
+
+	/**
+	 * @return The value of the given pair of types.
+	 */
+	@Nullable
+	public V get(Class<?> first, Class<?> second) {
+		Entry<V> entry = this.entry;
+		if (entry != null && entry.first == first && entry.second == second) {
+			if (Skript.debug())
+				hits.increment();
+			return entry.value;
+		}
+
+		V value = resolver.apply(first, second);
+		if (missCount < MAX_MISSES) {
+			this.entry = new Entry<>(first, second, value);
+			if (++missCount == MAX_MISSES && Skript.debug())
+				megamorphic.increment();
+		}
+		if (Skript.debug())
+			misses.increment();
+		return value;
+	}
+
+	/**
+	 * Logs the hits and misses of all inline caches since the last call in debug mode, and resets them.
+	 */
+	public static void logStatistics() {
+		if (!Skript.debug())
+			return;
+		Skript.debug("Inline caches: " + hits.sumThenReset() + " hits, " + misses.sumThenReset() + " misses, "
+			+ megamorphic.sumThenReset() + " sites turned megamorphic");
+	}
+
+	private static final class Entry<V> {
+
+		private final Class<?> first;
+		private final Class<?> second;
+		@Nullable
+		private final V value;
+
+		private Entry(Class<?> first, Class<?> second, @Nullable V value) {
+			this.first = first;
+			this.second = second;
+			this.value = value;
+		}
+
+	}
+
+}
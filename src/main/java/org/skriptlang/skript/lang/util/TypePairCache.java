@@ -0,0 +1,74 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package org.skriptlang.skript.lang.util;
+
+import org.eclipse.jdt.annotation.Nullable;
+
+import java.util.function.BiFunction;
+
+/**
+ * A lock-free cache of values resolved for pairs of types, e.g. the converter between two types.
+ * <p>
+ * Values are stored in nested {@link ClassValue}s, so a lookup of an already resolved pair neither allocates nor locks.
+ * Pairs that resolved to {@code null} are cached too.
+ * <p>
+ * A value may be resolved more than once if several threads look up the same pair at the same time,
+ * in which case only one of the results is kept. The resolver must thus not have side effects,
+ * and the data it depends on must not change anymore, e.g. because registrations have been closed.
+ *
+ * @param <V> The type of the cached values.
+ */
+public final class TypePairCache<V> {
+
+	/**
+	 * Marks a pair that resolved to {@code null}, as {@link ClassValue} doesn't support null values.
+	 */
+	private static final Object NONE = new Object();
+
+	private final ClassValue<ClassValue<Object>> cache;
+
+	/**
+	 * @param resolver Resolves the value of a pair of types that is not cached yet. May return null.
+	 */
+	public TypePairCache(BiFunction<Class<?>, Class<?>, @Nullable V> resolver) {
+		cache = new ClassValue<ClassValue<Object>>() {
+			@Override
+			protected ClassValue<Object> computeValue(Class<?> first) {
+				return new ClassValue<Object>() {
+					@Override
+					protected Object computeValue(Class<?> second) {
+						V value = resolver.apply(first, second);
+						return value == null ? NONE : value;
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * @return The value of the given pair of types, resolving it if it's not cached yet.
+	 */
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public V get(Class<?> first, Class<?> second) {
+		Object value = cache.get(first).get(second);
+		return value == NONE ? null : (V) value;
+	}
+
+}
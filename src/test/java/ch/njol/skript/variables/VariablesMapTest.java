@@ -0,0 +1,46 @@
+/**
+ *   This file is part of Skript.
+ *
+ *  Skript is free software: you can redistribute it and/or modify
+ *  it under the terms of the GNU General Public License as published by
+ *  the Free Software Foundation, either version 3 of the License, or
+ *  (at your option) any later version.
+ *
+ *  Skript is distributed in the hope that it will be useful,
+ *  but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *  MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *  GNU General Public License for more details.
+ *
+ *  You should have received a copy of the GNU General Public License
+ *  along with Skript.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * Copyright Peter Güttinger, SkriptLang team and contributors
+ */
+package ch.njol.skript.variables;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+public class VariablesMapTest {
+
+	@Test
+	public void testComparatorOrder() {
+		List<String> ordered = Arrays.asList(
+				"-10", "-2", "-1.5", "0", "00", "1", "1.5", "1.50", "01", "2", "9", "10", "99", "100",
+				"123456789012345678901234567890", "a", "a1", "a01", "a2", "a10", "b"
+		);
+		for (int i = 0; i < ordered.size(); i++) {
+			for (int j = 0; j < ordered.size(); j++) {
+				String s1 = ordered.get(i);
+				String s2 = ordered.get(j);
+				int result = Integer.signum(VariablesMap.VARIABLE_NAME_COMPARATOR.compare(s1, s2));
+				assertTrue(s1 + " <=> " + s2 + " returned " + result, result == Integer.signum(i - j));
+			}
+		}
+	}
+
+}